@@ -0,0 +1,33 @@
+package model;
+
+import model.engine.BitBoard;
+
+/**
+ * Posições fixas usadas pelos benchmarks, referenciadas por nome nos {@code @Param}
+ */
+final class BenchmarkPositions {
+    static final String START = "start";
+    static final String KIWIPETE = "kiwipete";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+
+    private BenchmarkPositions() {}
+
+    static String fen(String name) {
+        switch (name) {
+            case START: return Perft.POSICAO_INICIAL;
+            case KIWIPETE: return "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+            case MIDDLEGAME: return "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+            case ENDGAME: return "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+            default: throw new IllegalArgumentException("Posição desconhecida: " + name);
+        }
+    }
+
+    static Board board(String name) {
+        return BitBoard.fromFen(fen(name)).toBoard();
+    }
+
+    static BitBoard bitBoard(String name) {
+        return BitBoard.fromFen(fen(name));
+    }
+}
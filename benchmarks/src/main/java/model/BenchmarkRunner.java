@@ -0,0 +1,30 @@
+package model;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do jar de benchmarks. Aceita as mesmas opções do JMH, mas grava os
+ * resultados em JSON ({@code jmh-result.json}) por padrão, para comparar entre versões.
+ * Uso: {@code java -jar benchmarks/target/benchmarks.jar [opções JMH] [regex dos benchmarks]}
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+        OptionsBuilder opcoes = new OptionsBuilder();
+        opcoes.parent(linhaDeComando);
+        if (!linhaDeComando.getResultFormat().hasValue()) {
+            opcoes.resultFormat(ResultFormatType.JSON);
+        }
+        if (!linhaDeComando.getResult().hasValue()) {
+            opcoes.result("jmh-result.json");
+        }
+        Options construidas = opcoes.build();
+        new Runner(construidas).run();
+    }
+}
@@ -0,0 +1,45 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações básicas do {@link Board}: cópia e teste de casa atacada
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private Board board;
+    private final Position[] squares = new Position[64];
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.board(position);
+        for (int sq = 0; sq < 64; sq++) {
+            squares[sq] = new Position(sq >>> 3, sq & 7);
+        }
+    }
+
+    @Benchmark
+    public Board copy() {
+        return board.copy();
+    }
+
+    // As 64 casas, atacadas pelas duas cores
+    @Benchmark
+    @OperationsPerInvocation(128)
+    public void isSquareAttacked(Blackhole bh) {
+        for (Position square : squares) {
+            bh.consume(board.isSquareAttacked(square, true));
+            bh.consume(board.isSquareAttacked(square, false));
+        }
+    }
+}
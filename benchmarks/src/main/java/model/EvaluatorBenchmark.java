@@ -0,0 +1,83 @@
+package model;
+
+import model.engine.BitBoard;
+import model.engine.MoveGenerator;
+import model.engine.NnueEvaluator;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avaliação estática: o avaliador neural do {@link ChessAI} (MLP embutido, sem DL4J no classpath).
+ * Os filhos da posição são avaliados um a um e num único lote, como nos nós de fronteira da busca.
+ * A rede NNUE é medida com o acumulador atualizado pelo movimento feito e desfeito.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    @Param({BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private BitBoard bitBoard;
+    private ChessAI.NeuralEvaluator neuralEvaluator;
+    private ChessAI.NeuralEvaluator.Batch batch;
+    private NnueEvaluator nnueEvaluator;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    private int total;
+
+    @Setup
+    public void setup() {
+        bitBoard = BenchmarkPositions.bitBoard(position);
+        neuralEvaluator = new ChessAI.NeuralEvaluator();
+        batch = neuralEvaluator.newBatch(MoveGenerator.MAX_MOVES);
+        total = MoveGenerator.generateLegal(bitBoard, moves);
+        nnueEvaluator = new NnueEvaluator();
+    }
+
+    @Benchmark
+    public int neuralEvaluate() {
+        return neuralEvaluator.evaluate(bitBoard, false);
+    }
+
+    @Benchmark
+    public int neuralEvaluateChildren() {
+        int sum = 0;
+        for (int i = 0; i < total; i++) {
+            bitBoard.makeMove(moves[i]);
+            sum += neuralEvaluator.evaluate(bitBoard, false);
+            bitBoard.unmakeMove(moves[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int neuralEvaluateChildrenBatch() {
+        batch.clear();
+        for (int i = 0; i < total; i++) {
+            bitBoard.makeMove(moves[i]);
+            batch.add(bitBoard);
+            bitBoard.unmakeMove(moves[i]);
+        }
+        neuralEvaluator.evaluate(batch, scores);
+        int sum = 0;
+        for (int i = 0; i < total; i++) {
+            sum += scores[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int nnueEvaluateChildren() {
+        int sum = 0;
+        for (int i = 0; i < total; i++) {
+            bitBoard.makeMove(moves[i]);
+            sum += nnueEvaluator.evaluate(bitBoard);
+            bitBoard.unmakeMove(moves[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import model.engine.BitBoard;
+import model.engine.MoveGenerator;
+import model.pieces.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de movimentos: {@code getPossibleMoves} de cada tipo de peça, a lista legal do
+ * {@link Game} para a peça selecionada e o gerador de {@link BitBoard} como referência.
+ * Cada invocação gera os movimentos de todas as peças do tipo, das duas cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private Board board;
+    private BitBoard bitBoard;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final List<List<Piece>> piecesByType = new ArrayList<>();
+    private Game game;
+    private final List<Position> gameSquares = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.board(position);
+        bitBoard = BenchmarkPositions.bitBoard(position);
+        for (int type = BitBoard.PAWN; type <= BitBoard.KING; type++) {
+            piecesByType.add(new ArrayList<>());
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPieceAt(row, col);
+                if (piece != null) {
+                    piecesByType.get(BitBoard.typeOf(BitBoard.pieceIndex(piece))).add(piece);
+                }
+            }
+        }
+
+        // O Game sempre começa da posição inicial: usa a abertura abaixo para chegar a um meio-jogo
+        game = new Game();
+        int[][] opening = {{6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2}, {7, 5, 4, 2}, {0, 6, 2, 5}};
+        for (int[] m : opening) {
+            game.selectPiece(new Position(m[0], m[1]));
+            game.makeMove(new Position(m[2], m[3]));
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = game.getBoard().getPieceAt(row, col);
+                if (piece != null && piece.isWhite() == game.isWhiteTurn()) {
+                    gameSquares.add(new Position(row, col));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void pawnMoves(Blackhole bh) {
+        generate(BitBoard.PAWN, bh);
+    }
+
+    @Benchmark
+    public void knightMoves(Blackhole bh) {
+        generate(BitBoard.KNIGHT, bh);
+    }
+
+    @Benchmark
+    public void bishopMoves(Blackhole bh) {
+        generate(BitBoard.BISHOP, bh);
+    }
+
+    @Benchmark
+    public void rookMoves(Blackhole bh) {
+        generate(BitBoard.ROOK, bh);
+    }
+
+    @Benchmark
+    public void queenMoves(Blackhole bh) {
+        generate(BitBoard.QUEEN, bh);
+    }
+
+    @Benchmark
+    public void kingMoves(Blackhole bh) {
+        generate(BitBoard.KING, bh);
+    }
+
+    // Todas as peças do lado a jogar, como a interface faz ao selecionar cada uma
+    @Benchmark
+    public void gamePossibleMovesForSelected(Blackhole bh) {
+        for (Position square : gameSquares) {
+            game.setSelectedPosition(square);
+            bh.consume(game.getPossibleMovesForSelected());
+        }
+    }
+
+    @Benchmark
+    public int bitBoardGenerate() {
+        return MoveGenerator.generate(bitBoard, moves);
+    }
+
+    private void generate(int type, Blackhole bh) {
+        for (Piece piece : piecesByType.get(type)) {
+            bh.consume(piece.getPossibleMoves(board));
+        }
+    }
+}
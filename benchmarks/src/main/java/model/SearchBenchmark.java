@@ -0,0 +1,42 @@
+package model;
+
+import model.engine.SearchLimits;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca completa ({@code chooseBestMove}) das duas IAs a profundidade fixa.
+ * Cada invocação usa um motor novo, para começar com a tabela de transposição vazia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    @Param({"4"})
+    public int depth;
+
+    private Board board;
+    private boolean whiteToMove;
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.board(position);
+        whiteToMove = board.isWhiteToMove();
+    }
+
+    @Benchmark
+    public Move iaSuprema() {
+        return new IASuprema().chooseBestMove(board, whiteToMove, SearchLimits.depth(depth));
+    }
+
+    @Benchmark
+    public Move iaNivel8() {
+        return new IANivel8().chooseBestMove(board, whiteToMove, SearchLimits.depth(depth));
+    }
+}
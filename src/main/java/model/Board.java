@@ -1,5 +1,8 @@
 package model;
 
+import model.engine.AttackTables;
+import model.engine.BitBoard;
+import model.engine.Zobrist;
 import model.pieces.*;
 
 /**
@@ -8,10 +11,42 @@ import model.pieces.*;
 public class Board {
     private Piece[][] squares;
     private Position enPassantTarget; // casa alvo de en passant (se houver)
+
+    // Índice de peças: casas (linha * 8 + coluna) por tipo e cor, no formato de BitBoard.pieceIndex
+    private static final int MAX_PIECES_PER_TYPE = 16;
+    private final int[][] pieceSquares = new int[12][MAX_PIECES_PER_TYPE];
+    private final int[] pieceCounts = new int[12];
+    private final int[] listIndex = new int[64]; // posição da casa dentro da lista do seu tipo
+
+    // Uma Position por casa, compartilhada por todos os tabuleiros: makeMove não aloca as suas
+    private static final Position[] SQUARE_POSITIONS = new Position[64];
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            SQUARE_POSITIONS[sq] = new Position(sq >>> 3, sq & 7);
+        }
+    }
+
+    // Peças promovidas devolvidas por unmakeMove, reaproveitadas pela próxima promoção da mesma cor e tipo.
+    // Criadas na primeira devolução: a maioria dos tabuleiros (um por partida) nunca desfaz uma promoção.
+    private Piece[][] sparePieces;
+    private int[] spareCounts;
+
+    // Estado de hash: lado a jogar e chave de Zobrist mantida incrementalmente
+    private boolean whiteToMove = true;
+    private long zobristKey;
+    private int hashedCastlingRights; // direitos de roque já incluídos na chave
     
     public Board() {
         squares = new Piece[8][8];
         initializeBoard();
+        rebuildIndex();
+    }
+
+    /**
+     * Cria um tabuleiro vazio (usado por {@link #copy()})
+     */
+    private Board(boolean empty) {
+        squares = new Piece[8][8];
     }
     
     /**
@@ -56,46 +91,191 @@ public class Board {
         }
         return squares[position.getRow()][position.getCol()];
     }
-    
+
+    /**
+     * Retorna a peça na linha/coluna especificada, sem alocar uma Position
+     */
+    public Piece getPieceAt(int row, int col) {
+        if (row < 0 || row >= 8 || col < 0 || col >= 8) {
+            return null;
+        }
+        return squares[row][col];
+    }
+
     /**
      * Coloca uma peça na posição especificada
      */
     public void setPieceAt(Position position, Piece piece) {
-        if (position.isValid()) {
-            squares[position.getRow()][position.getCol()] = piece;
-            if (piece != null) {
-                piece.setPosition(position);
-            }
-        }
+        placePiece(position, piece);
+        refreshCastlingKey();
     }
     
     /**
      * Remove a peça da posição especificada
      */
     public void removePieceAt(Position position) {
-        if (position.isValid()) {
-            squares[position.getRow()][position.getCol()] = null;
-        }
+        clearSquare(position);
+        refreshCastlingKey();
+    }
+
+    /**
+     * Quantidade de peças de um tipo e cor (índice cor * 6 + tipo, como em BitBoard.pieceIndex)
+     */
+    public int getPieceCount(int pieceIndex) {
+        return pieceCounts[pieceIndex];
+    }
+
+    /**
+     * Casa (linha * 8 + coluna) da i-ésima peça de um tipo e cor
+     */
+    public int getPieceSquare(int pieceIndex, int i) {
+        return pieceSquares[pieceIndex][i];
     }
     
     /**
      * Move uma peça de uma posição para outra
      */
     public void movePiece(Position from, Position to) {
+        shiftPiece(from, to);
+        refreshCastlingKey();
+    }
+
+    public Position getEnPassantTarget() {
+        return enPassantTarget;
+    }
+
+    public void setEnPassantTarget(Position enPassantTarget) {
+        updateEnPassant(enPassantTarget);
+    }
+
+    /**
+     * Lado a jogar; alternado por {@link #makeMove(Move, UndoInfo)} e {@link #unmakeMove(Move, UndoInfo)}
+     */
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.whiteToMove != whiteToMove) {
+            this.whiteToMove = whiteToMove;
+            zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        }
+    }
+
+    /**
+     * Chave de Zobrist da posição (peças, lado a jogar, roque e en passant),
+     * atualizada incrementalmente a cada alteração do tabuleiro
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Direitos de roque (máscara de BitBoard.WHITE_KINGSIDE etc.), deduzidos das flags
+     * hasMoved do rei e das torres nas casas iniciais
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        if (isUnmovedPiece(7, 4, true, King.class)) {
+            if (isUnmovedPiece(7, 7, true, Rook.class)) rights |= BitBoard.WHITE_KINGSIDE;
+            if (isUnmovedPiece(7, 0, true, Rook.class)) rights |= BitBoard.WHITE_QUEENSIDE;
+        }
+        if (isUnmovedPiece(0, 4, false, King.class)) {
+            if (isUnmovedPiece(0, 7, false, Rook.class)) rights |= BitBoard.BLACK_KINGSIDE;
+            if (isUnmovedPiece(0, 0, false, Rook.class)) rights |= BitBoard.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private boolean isUnmovedPiece(int row, int col, boolean white, Class<? extends Piece> type) {
+        Piece piece = squares[row][col];
+        return type.isInstance(piece) && piece.isWhite() == white && !piece.hasMoved();
+    }
+
+    // Primitivas sem atualização dos direitos de roque na chave; quem chama faz refreshCastlingKey()
+    private void placePiece(Position position, Piece piece) {
+        if (position.isValid()) {
+            int sq = position.getRow() * 8 + position.getCol();
+            if (squares[position.getRow()][position.getCol()] != null) {
+                unindexPiece(sq);
+            }
+            squares[position.getRow()][position.getCol()] = piece;
+            if (piece != null) {
+                piece.setPosition(position);
+                indexPiece(piece, sq);
+            }
+        }
+    }
+
+    private void clearSquare(Position position) {
+        if (position.isValid() && squares[position.getRow()][position.getCol()] != null) {
+            unindexPiece(position.getRow() * 8 + position.getCol());
+            squares[position.getRow()][position.getCol()] = null;
+        }
+    }
+
+    private void shiftPiece(Position from, Position to) {
         Piece piece = getPieceAt(from);
         if (piece != null) {
-            removePieceAt(from);
-            setPieceAt(to, piece);
+            clearSquare(from);
+            placePiece(to, piece);
             piece.setHasMoved(true);
         }
     }
 
-    public Position getEnPassantTarget() {
-        return enPassantTarget;
+    private void indexPiece(Piece piece, int sq) {
+        int index = BitBoard.pieceIndex(piece);
+        int count = pieceCounts[index]++;
+        pieceSquares[index][count] = sq;
+        listIndex[sq] = count;
+        zobristKey ^= Zobrist.PIECES[index][sq];
     }
 
-    public void setEnPassantTarget(Position enPassantTarget) {
-        this.enPassantTarget = enPassantTarget;
+    // Remove a casa da lista do seu tipo trocando-a pela última entrada
+    private void unindexPiece(int sq) {
+        int index = BitBoard.pieceIndex(squares[sq >>> 3][sq & 7]);
+        int last = --pieceCounts[index];
+        int i = listIndex[sq];
+        int moved = pieceSquares[index][last];
+        pieceSquares[index][i] = moved;
+        listIndex[moved] = i;
+        zobristKey ^= Zobrist.PIECES[index][sq];
+    }
+
+    private void updateEnPassant(Position target) {
+        zobristKey ^= Zobrist.enPassantKey(squareOf(enPassantTarget)) ^ Zobrist.enPassantKey(squareOf(target));
+        enPassantTarget = target;
+    }
+
+    private void refreshCastlingKey() {
+        int rights = getCastlingRights();
+        if (rights != hashedCastlingRights) {
+            zobristKey ^= Zobrist.CASTLING[hashedCastlingRights] ^ Zobrist.CASTLING[rights];
+            hashedCastlingRights = rights;
+        }
+    }
+
+    private static int squareOf(Position position) {
+        return (position == null || !position.isValid()) ? -1 : position.getRow() * 8 + position.getCol();
+    }
+
+    // Recalcula do zero o índice de peças e a chave de Zobrist
+    private void rebuildIndex() {
+        java.util.Arrays.fill(pieceCounts, 0);
+        zobristKey = 0L;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                if (squares[row][col] != null) {
+                    indexPiece(squares[row][col], row * 8 + col);
+                }
+            }
+        }
+        if (!whiteToMove) {
+            zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        }
+        zobristKey ^= Zobrist.enPassantKey(squareOf(enPassantTarget));
+        hashedCastlingRights = getCastlingRights();
+        zobristKey ^= Zobrist.CASTLING[hashedCastlingRights];
     }
     
     /**
@@ -109,26 +289,169 @@ public class Board {
      * Retorna uma cópia do tabuleiro
      */
     public Board copy() {
-        Board copy = new Board();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                copy.squares[row][col] = null;
-            }
-        }
+        Board copy = new Board(true);
         copy.enPassantTarget = (enPassantTarget == null) ? null : new Position(enPassantTarget.getRow(), enPassantTarget.getCol());
         
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
                 Piece piece = squares[row][col];
                 if (piece != null) {
-                    copy.squares[row][col] = createPieceCopy(piece, new Position(row, col));
+                    Piece pieceCopy = createPieceCopy(piece, new Position(row, col));
+                    pieceCopy.setHasMoved(piece.hasMoved());
+                    copy.squares[row][col] = pieceCopy;
                 }
             }
         }
+        copy.whiteToMove = whiteToMove;
+        copy.rebuildIndex();
         
         return copy;
     }
+
+    /**
+     * Executa um movimento de forma reversível, tratando captura, en passant,
+     * roque e promoção. O {@link Move} não é alterado: os detalhes (peça capturada, roque,
+     * en passant e peça promovida) ficam no {@link UndoInfo} devolvido.
+     */
+    public UndoInfo makeMove(Move move) {
+        UndoInfo undo = new UndoInfo();
+        makeMove(move, undo);
+        return undo;
+    }
+
+    /**
+     * Variante de {@link #makeMove(Move)} que reaproveita um {@link UndoInfo} já alocado
+     */
+    public void makeMove(Move move, UndoInfo undo) {
+        undo.reset();
+        Position from = move.getFrom();
+        Position to = move.getTo();
+        Piece piece = getPieceAt(from);
+        if (piece == null) {
+            return;
+        }
+        undo.movedPiece = piece;
+        undo.movedPieceHadMoved = piece.hasMoved();
+        undo.previousEnPassant = enPassantTarget;
+        undo.previousCastlingRights = hashedCastlingRights;
+
+        // Captura normal ou en passant (peão na diagonal para casa vazia)
+        Piece captured = getPieceAt(to);
+        Position capturedSquare = to;
+        if (captured == null && piece instanceof Pawn && from.getCol() != to.getCol()) {
+            capturedSquare = positionOf(from.getRow(), to.getCol());
+            captured = getPieceAt(capturedSquare);
+            if (captured instanceof Pawn && captured.isWhite() != piece.isWhite()) {
+                undo.enPassant = true;
+            } else {
+                captured = null;
+            }
+        }
+        if (captured != null) {
+            undo.capturedPiece = captured;
+            undo.capturedSquare = capturedSquare;
+            clearSquare(capturedSquare);
+        }
+
+        shiftPiece(from, to);
+
+        // Roque: move também a torre
+        if (piece instanceof King && Math.abs(to.getCol() - from.getCol()) == 2) {
+            int direction = to.getCol() > from.getCol() ? 1 : -1;
+            Position rookFrom = positionOf(from.getRow(), direction > 0 ? 7 : 0);
+            Position rookTo = positionOf(from.getRow(), from.getCol() + direction);
+            Piece rook = getPieceAt(rookFrom);
+            if (rook != null) {
+                undo.castlingRook = rook;
+                undo.rookFrom = rookFrom;
+                undo.rookTo = rookTo;
+                undo.rookHadMoved = rook.hasMoved();
+                shiftPiece(rookFrom, rookTo);
+            }
+        }
+
+        // Alvo de en passant: apenas após avanço duplo de peão
+        Position newEnPassant = null;
+        if (piece instanceof Pawn && from.getCol() == to.getCol() && Math.abs(to.getRow() - from.getRow()) == 2) {
+            newEnPassant = positionOf((from.getRow() + to.getRow()) / 2, from.getCol());
+        }
+        updateEnPassant(newEnPassant);
+
+        // Promoção (por padrão para rainha)
+        if (piece instanceof Pawn && to.getRow() == (piece.isWhite() ? 0 : 7)) {
+            Piece requested = move.getPromotionPiece();
+            int type = requested != null ? BitBoard.typeOf(BitBoard.pieceIndex(requested)) : BitBoard.QUEEN;
+            Piece promoted = takePromotionPiece((piece.isWhite() ? BitBoard.WHITE : BitBoard.BLACK) * 6 + type, to);
+            promoted.setHasMoved(true);
+            placePiece(to, promoted);
+            undo.promotedPiece = promoted;
+        }
+
+        refreshCastlingKey();
+        setWhiteToMove(!whiteToMove);
+    }
+
+    /**
+     * Desfaz um movimento feito com {@link #makeMove(Move, UndoInfo)}, restaurando
+     * peças capturadas, flags hasMoved, alvo de en passant, torre do roque e peão promovido.
+     */
+    public void unmakeMove(Move move, UndoInfo undo) {
+        Piece piece = undo.movedPiece;
+        if (piece == null) {
+            return;
+        }
+        Position from = move.getFrom();
+        Position to = move.getTo();
+
+        if (undo.castlingRook != null) {
+            clearSquare(undo.rookTo);
+            placePiece(undo.rookFrom, undo.castlingRook);
+            undo.castlingRook.setHasMoved(undo.rookHadMoved);
+        }
+
+        clearSquare(to);
+        placePiece(from, piece);
+        piece.setHasMoved(undo.movedPieceHadMoved);
+
+        if (undo.capturedPiece != null) {
+            placePiece(undo.capturedSquare, undo.capturedPiece);
+        }
+        if (undo.promotedPiece != null) {
+            returnPromotionPiece(undo.promotedPiece);
+        }
+
+        updateEnPassant(undo.previousEnPassant);
+        zobristKey ^= Zobrist.CASTLING[hashedCastlingRights] ^ Zobrist.CASTLING[undo.previousCastlingRights];
+        hashedCastlingRights = undo.previousCastlingRights;
+        setWhiteToMove(!whiteToMove);
+    }
     
+    // Peça promovida do índice pedido (cor * 6 + tipo): uma devolvida antes, ou nova se não houver
+    private Piece takePromotionPiece(int pieceIndex, Position position) {
+        int count = spareCounts == null ? 0 : spareCounts[pieceIndex];
+        if (count == 0) {
+            return BitBoard.createPiece(pieceIndex, position);
+        }
+        spareCounts[pieceIndex] = count - 1;
+        return sparePieces[pieceIndex][count - 1];
+    }
+
+    private void returnPromotionPiece(Piece piece) {
+        if (sparePieces == null) {
+            sparePieces = new Piece[12][MAX_PIECES_PER_TYPE];
+            spareCounts = new int[12];
+        }
+        int index = BitBoard.pieceIndex(piece);
+        if (spareCounts[index] < MAX_PIECES_PER_TYPE) {
+            sparePieces[index][spareCounts[index]++] = piece;
+        }
+    }
+
+    // Position compartilhada da casa; não deve ser alterada
+    private static Position positionOf(int row, int col) {
+        return SQUARE_POSITIONS[row * 8 + col];
+    }
+
     /**
      * Cria uma cópia de uma peça
      */
@@ -153,31 +476,64 @@ public class Board {
      * Encontra a posição do rei de uma cor específica
      */
     public Position findKing(boolean isWhite) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                if (piece instanceof King && piece.isWhite() == isWhite) {
-                    return new Position(row, col);
-                }
-            }
+        int index = (isWhite ? BitBoard.WHITE : BitBoard.BLACK) * 6 + BitBoard.KING;
+        if (pieceCounts[index] == 0) {
+            return null;
         }
-        return null;
+        int sq = pieceSquares[index][0];
+        return new Position(sq >>> 3, sq & 7);
     }
 
     /**
-     * Verifica se a casa está atacada por alguma peça da cor informada
+     * Verifica se a casa está atacada por alguma peça da cor informada.
+     * Usa as tabelas pré-calculadas de {@link AttackTables}: procura cavalos, rei e
+     * peões nas casas de onde poderiam atacar e segue os raios até o primeiro bloqueador.
      */
     public boolean isSquareAttacked(Position position, boolean byWhite) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                if (piece != null && piece.isWhite() == byWhite) {
-                    if (piece.isValidMove(position, this)) {
-                        return true;
-                    }
+        if (!position.isValid()) {
+            return false;
+        }
+        int row = position.getRow();
+        int col = position.getCol();
+        int sq = row * 8 + col;
+
+        // Peões: um peão branco ataca a diagonal acima dele, portanto fica uma linha abaixo do alvo
+        int pawnRow = byWhite ? row + 1 : row - 1;
+        if (isPieceOf(getPieceAt(pawnRow, col - 1), Pawn.class, byWhite)
+                || isPieceOf(getPieceAt(pawnRow, col + 1), Pawn.class, byWhite)) {
+            return true;
+        }
+
+        for (int from : AttackTables.KNIGHT_SQUARES[sq]) {
+            if (isPieceOf(squares[from >>> 3][from & 7], Knight.class, byWhite)) {
+                return true;
+            }
+        }
+
+        for (int from : AttackTables.KING_SQUARES[sq]) {
+            if (isPieceOf(squares[from >>> 3][from & 7], King.class, byWhite)) {
+                return true;
+            }
+        }
+
+        // Peças deslizantes: apenas o primeiro ocupante de cada raio pode atacar
+        for (int direction = 0; direction < 8; direction++) {
+            for (int from : AttackTables.RAY_SQUARES[direction][sq]) {
+                Piece piece = squares[from >>> 3][from & 7];
+                if (piece == null) {
+                    continue;
+                }
+                if (piece.isWhite() == byWhite && (piece instanceof Queen
+                        || (AttackTables.isOrthogonal(direction) ? piece instanceof Rook : piece instanceof Bishop))) {
+                    return true;
                 }
+                break;
             }
         }
         return false;
     }
+
+    private static boolean isPieceOf(Piece piece, Class<? extends Piece> type, boolean white) {
+        return piece != null && piece.isWhite() == white && type.isInstance(piece);
+    }
 }
@@ -1,31 +1,53 @@
 package model;
 
-import model.pieces.*;
-import java.util.List;
+import model.engine.AlphaBetaSearch;
+import model.engine.BitBoard;
+import model.engine.Evaluator;
+import model.engine.IterativeDeepeningSearch;
+import model.engine.MoveGenerator;
+import model.engine.PackedMove;
+import model.engine.SearchEngine;
+import model.engine.SearchFeatures;
+import model.engine.SearchLimits;
+import model.engine.SearchListener;
+import model.engine.SearchResult;
+import model.engine.SearchTimer;
+import model.engine.TranspositionTable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.util.Random;
-import java.util.ArrayList;
 
 /**
  * IA simples para o jogo de xadrez
  */
-public class ChessAI {
+public class ChessAI implements SearchEngine {
     private Random random;
     private int difficulty; // 1-10, onde 1 é mais fácil e 10 é mais difícil
     private boolean supremeMode; // Quando ativo, usa avaliação "neural"
     private final NeuralEvaluator neuralEvaluator;
+    private volatile Evaluator evaluator; // quando definido, substitui a avaliação posicional/neural
+    private static final long DEFAULT_MOVE_TIME_MS = 3000;
+    // Valor de cada tipo de peça, indexado por BitBoard.PAWN..KING
+    private static final int[] PIECE_VALUES = {100, 300, 300, 500, 900, 10000};
+    // Busca do modo supremo; cada thread avalia as folhas com o seu próprio lote
+    private final IterativeDeepeningSearch supremeSearch = new IterativeDeepeningSearch("ia-classica",
+            this::newSearchWorker);
+    private volatile int searchCount; // identifica a busca atual para as avaliações em lote
+    private final Object searchLock = new Object(); // uma busca por vez nesta instância
+    private SearchLimits searchLimits = SearchLimits.moveTime(DEFAULT_MOVE_TIME_MS);
     
     public ChessAI() {
         this.random = new Random();
         this.difficulty = 2; // dificuldade padrão
         this.supremeMode = false;
-        this.neuralEvaluator = new NeuralEvaluator();
+        this.neuralEvaluator = NeuralEvaluator.shared();
     }
     
     public ChessAI(int difficulty) {
         this.random = new Random();
         this.difficulty = clampDifficulty(difficulty);
         this.supremeMode = false;
-        this.neuralEvaluator = new NeuralEvaluator();
+        this.neuralEvaluator = NeuralEvaluator.shared();
     }
     
     /**
@@ -33,6 +55,7 @@ public class ChessAI {
      */
     public void setDifficulty(int difficulty) {
         this.difficulty = clampDifficulty(difficulty);
+        clearTranspositionTable();
     }
     
     /**
@@ -47,6 +70,80 @@ public class ChessAI {
      */
     public void setSupremeMode(boolean enabled) {
         this.supremeMode = enabled;
+        clearTranspositionTable();
+    }
+
+    /**
+     * Troca a função de avaliação (null = avaliação posicional ou neural, conforme modo e dificuldade)
+     */
+    @Override
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        clearTranspositionTable();
+    }
+
+    @Override
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Define o orçamento de memória da tabela de transposição (em MB)
+     */
+    public void setHashSizeMb(int sizeMb) {
+        supremeSearch.setHashSizeMb(sizeMb);
+    }
+
+    /**
+     * Tabela de transposição usada pela busca (null antes da primeira busca)
+     */
+    public TranspositionTable getTranspositionTable() {
+        return supremeSearch.getTranspositionTable();
+    }
+
+    /**
+     * Define os limites (profundidade, tempo, nós, prazo) da busca do modo supremo
+     */
+    public void setSearchLimits(SearchLimits limits) {
+        this.searchLimits = limits;
+    }
+
+    public SearchLimits getSearchLimits() {
+        return searchLimits;
+    }
+
+    /**
+     * Liga ou desliga as técnicas de busca do modo supremo (PVS, lance nulo, LMR, futilidade, aspiração)
+     */
+    public void setSearchFeatures(SearchFeatures features) {
+        supremeSearch.setFeatures(features);
+    }
+
+    public SearchFeatures getSearchFeatures() {
+        return supremeSearch.getFeatures();
+    }
+
+    /**
+     * Define quantas threads dividem os movimentos da raiz no modo supremo (1 = busca sequencial)
+     */
+    public void setRootParallelism(int threads) {
+        supremeSearch.setRootParallelism(threads);
+    }
+
+    public int getRootParallelism() {
+        return supremeSearch.getRootParallelism();
+    }
+
+    /**
+     * Encerra as threads da divisão da raiz (são recriadas na próxima busca, se necessário)
+     */
+    public void shutdown() {
+        supremeSearch.shutdown();
+    }
+
+    // A avaliação muda com o modo/dificuldade, então entradas antigas deixam de valer
+    private void clearTranspositionTable() {
+        supremeSearch.clearTranspositionTable();
     }
 
     /**
@@ -70,47 +167,51 @@ public class ChessAI {
         if (game.isWhiteTurn()) {
             return null; // Não é o turno da IA
         }
+        return makeBestMove(game.getBoard());
+    }
+
+    /**
+     * Escolhe o movimento das pretas no tabuleiro dado, sem alterá-lo
+     */
+    public Move makeBestMove(Board board) {
+        return makeBestMove(board, new SearchTimer(searchLimits));
+    }
+
+    /**
+     * Como acima, com o relógio da busca do modo supremo criado por quem chama (por exemplo o
+     * de uma ponderação, {@link SearchTimer#pondering})
+     */
+    public Move makeBestMove(Board board, SearchTimer timer) {
+        return makeBestMove(board, false, timer);
+    }
+
+    /**
+     * Escolhe o movimento de qualquer cor (usado fora do jogo, por exemplo pela UCI)
+     */
+    public Move makeBestMove(Board board, boolean isWhite, SearchTimer timer) {
+        BitBoard position = BitBoard.fromBoard(board, isWhite);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int total = MoveGenerator.generateLegal(position, moves);
         
-        Board board = game.getBoard();
-        List<Move> allPossibleMoves = getAllPossibleMoves(board, false);
-        
-        if (allPossibleMoves.isEmpty()) {
+        if (total == 0) {
             return null; // Não há movimentos possíveis
         }
         
+        int bestMove;
         if (supremeMode) {
-            System.out.println("[IA Suprema] Avaliação neural + busca em profundidade 4 + move ordering ativadas.");
-        }
-
-        Move bestMove = null;
-        int bestScore = Integer.MIN_VALUE;
-        
-        // Move ordering para IA Suprema: ordena por capturas primeiro
-        if (supremeMode) {
-            allPossibleMoves.sort((m1, m2) -> {
-                int score1 = getMoveOrderingScore(m1);
-                int score2 = getMoveOrderingScore(m2);
-                return Integer.compare(score2, score1); // Maior score primeiro
-            });
-        }
-        
-        for (Move move : allPossibleMoves) {
-            // Simula o movimento
-            Board tempBoard = board.copy();
-            tempBoard.movePiece(move.getFrom(), move.getTo());
-
-            int score;
-            if (supremeMode) {
-                // Busca em profundidade 4 com move ordering
-                score = minimax(tempBoard, 4, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
-            } else {
-                // Avaliação estática simples
-                score = evaluate(tempBoard, false);
-            }
-
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = move;
+            bestMove = search(position, timer).getBestMove();
+        } else {
+            // Avaliação estática simples
+            bestMove = PackedMove.NONE;
+            int bestScore = Integer.MIN_VALUE;
+            for (int i = 0; i < total; i++) {
+                position.makeMove(moves[i]);
+                int score = evaluate(position, isWhite);
+                position.unmakeMove(moves[i]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = moves[i];
+                }
             }
         }
         
@@ -118,72 +219,55 @@ public class ChessAI {
         if (!supremeMode && difficulty == 1) {
             // 50% de chance de fazer um movimento aleatório
             if (random.nextDouble() < 0.5) {
-                bestMove = allPossibleMoves.get(random.nextInt(allPossibleMoves.size()));
+                bestMove = moves[random.nextInt(total)];
             }
         } else if (!supremeMode && difficulty == 2) {
             // 20% de chance de fazer um movimento aleatório
             if (random.nextDouble() < 0.2) {
-                bestMove = allPossibleMoves.get(random.nextInt(allPossibleMoves.size()));
+                bestMove = moves[random.nextInt(total)];
             }
         }
         // Dificuldade 3 sempre faz o melhor movimento
         
-        return bestMove;
+        return PackedMove.toMove(bestMove, board);
     }
-    
+
     /**
-     * Obtém todos os movimentos possíveis para uma cor
+     * Busca do modo supremo sobre uma posição completa, de qualquer cor e sem a aleatoriedade
+     * das dificuldades baixas; buscas simultâneas nesta instância esperam a vez
      */
-    private List<Move> getAllPossibleMoves(Board board, boolean isWhite) {
-        List<Move> moves = new ArrayList<>();
-        
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
-                
-                if (piece != null && piece.isWhite() == isWhite) {
-                    List<Position> possiblePositions = piece.getPossibleMoves(board);
-                    
-                    for (Position target : possiblePositions) {
-                        Move move = new Move(pos, target, piece);
-                        Piece captured = board.getPieceAt(target);
-                        if (captured != null) {
-                            move.setPieceCaptured(captured);
-                        }
-                        moves.add(move);
-                    }
-                }
-            }
+    @Override
+    public SearchResult search(BitBoard position, SearchTimer timer) {
+        synchronized (searchLock) {
+            searchCount++;
+            return supremeSearch.search(position, timer);
         }
-        
-        return moves;
     }
     
     /**
      * Avalia uma posição do tabuleiro
      */
-    private int evaluatePosition(Board board, boolean isWhite) {
+    private int evaluatePosition(BitBoard board, boolean isWhite) {
         int score = 0;
         
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
+        for (int piece = 0; piece < 12; piece++) {
+            int type = BitBoard.typeOf(piece);
+            boolean white = BitBoard.isWhitePiece(piece);
+            long bits = board.getPieces(piece);
+            while (bits != 0) {
+                int sq = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int pieceValue = PIECE_VALUES[type];
                 
-                if (piece != null) {
-                    int pieceValue = getPieceValue(piece);
-                    
-                    // Adiciona valor posicional para IA Suprema
-                    if (supremeMode) {
-                        pieceValue += getPositionalValue(piece, pos);
-                    }
-                    
-                    if (piece.isWhite() == isWhite) {
-                        score += pieceValue;
-                    } else {
-                        score -= pieceValue;
-                    }
+                // Adiciona valor posicional para IA Suprema
+                if (supremeMode) {
+                    pieceValue += getPositionalValue(type, white, BitBoard.row(sq), BitBoard.col(sq));
+                }
+                
+                if (white == isWhite) {
+                    score += pieceValue;
+                } else {
+                    score -= pieceValue;
                 }
             }
         }
@@ -192,40 +276,40 @@ public class ChessAI {
     }
     
     // Valor posicional para tornar a IA mais inteligente
-    private int getPositionalValue(Piece piece, Position pos) {
+    private int getPositionalValue(int type, boolean white, int row, int col) {
         int value = 0;
         
         // Peões: centro vale mais
-        if (piece instanceof Pawn) {
-            int centerDistance = Math.abs(pos.getCol() - 3) + Math.abs(pos.getCol() - 4);
+        if (type == BitBoard.PAWN) {
+            int centerDistance = Math.abs(col - 3) + Math.abs(col - 4);
             value += (8 - centerDistance) * 5;
             
             // Peões avançados valem mais
-            if (piece.isWhite()) {
-                value += (7 - pos.getRow()) * 10;
+            if (white) {
+                value += (7 - row) * 10;
             } else {
-                value += pos.getRow() * 10;
+                value += row * 10;
             }
         }
         
         // Cavalos: centro vale mais
-        if (piece instanceof Knight) {
-            int centerDistance = Math.abs(pos.getCol() - 3) + Math.abs(pos.getCol() - 4) + 
-                               Math.abs(pos.getRow() - 3) + Math.abs(pos.getRow() - 4);
+        if (type == BitBoard.KNIGHT) {
+            int centerDistance = Math.abs(col - 3) + Math.abs(col - 4) + 
+                               Math.abs(row - 3) + Math.abs(row - 4);
             value += (16 - centerDistance) * 3;
         }
         
         // Bispos: diagonais longas
-        if (piece instanceof Bishop) {
-            if ((pos.getRow() + pos.getCol()) % 2 == 0) {
+        if (type == BitBoard.BISHOP) {
+            if ((row + col) % 2 == 0) {
                 value += 20; // Diagonal principal
             }
         }
         
         // Torres: colunas abertas
-        if (piece instanceof Rook) {
+        if (type == BitBoard.ROOK) {
             // Simplificado: torres no centro valem mais
-            int centerDistance = Math.abs(pos.getCol() - 3) + Math.abs(pos.getCol() - 4);
+            int centerDistance = Math.abs(col - 3) + Math.abs(col - 4);
             value += (8 - centerDistance) * 5;
         }
         
@@ -235,31 +319,52 @@ public class ChessAI {
     /**
      * Decide qual avaliação usar com base na dificuldade e modo supremo
      */
-    private int evaluate(Board board, boolean isWhite) {
+    private int evaluate(BitBoard board, boolean isWhite) {
+        Evaluator configured = evaluator;
+        if (configured != null) {
+            int score = configured.evaluate(board);
+            return isWhite ? score : -score;
+        }
         if (supremeMode || difficulty >= 10) {
             return neuralEvaluator.evaluate(board, isWhite);
         }
         return evaluatePosition(board, isWhite);
     }
+
+    // Mesma condição de evaluate para usar o avaliador neural
+    private boolean usesNeuralEvaluation() {
+        return evaluator == null && (supremeMode || difficulty >= 10);
+    }
     
     /**
-     * Retorna o valor de uma peça
+     * Lance que a última busca espera de quem joga na posição (o guardado na tabela de
+     * transposição), ou null se não houver
      */
-    private int getPieceValue(Piece piece) {
-        if (piece instanceof Pawn) {
-            return 100;
-        } else if (piece instanceof Knight || piece instanceof Bishop) {
-            return 300;
-        } else if (piece instanceof Rook) {
-            return 500;
-        } else if (piece instanceof Queen) {
-            return 900;
-        } else if (piece instanceof King) {
-            return 10000;
-        }
-        return 0;
+    public Move predictMove(Board board, boolean isWhite) {
+        int move = supremeSearch.predictMove(BitBoard.fromBoard(board, isWhite));
+        return move == PackedMove.NONE ? null : PackedMove.toMove(move, board);
     }
-    
+
+    @Override
+    public String getName() {
+        return supremeMode ? "IA Suprema (Neural)" : "IA Tradicional";
+    }
+
+    /**
+     * Define quem recebe o resultado de cada iteração concluída do modo supremo; null desliga
+     */
+    @Override
+    public void setSearchListener(SearchListener listener) {
+        supremeSearch.setListener(listener);
+    }
+
+    /**
+     * Interrompe a busca do modo supremo em andamento, de qualquer thread
+     */
+    public void stopSearch() {
+        supremeSearch.stop();
+    }
+
     /**
      * Verifica se a IA deve fazer um movimento
      */
@@ -276,28 +381,54 @@ public class ChessAI {
      * Avaliador "neural" fictício para demonstração do modo supremo.
      * Converte o tabuleiro para um vetor simples e usa uma função
      * determinística para simular uma predição.
+     * Visível no pacote para os benchmarks JMH.
      */
-    private static class NeuralEvaluator {
+    static class NeuralEvaluator {
         // Backend DL4J (opcional): se um modelo for fornecido e as libs estiverem no classpath, usa; senão, cai para MLP embutido
         private Object dl4jModel; // evitamos referências diretas a tipos DL4J para compilar sem as libs
         private boolean dl4jAvailable;
+        // Chamadas DL4J resolvidas uma única vez na construção: Nd4j.create(float[][]),
+        // model.output(INDArray, false) e INDArray.getFloat(long)
+        private MethodHandle createMatrix;
+        private MethodHandle output;
+        private MethodHandle getFloat;
         private final int inputSize = 12 * 64;
         private final int hiddenSize = 64;
-        private final float[] w1; // [hiddenSize * inputSize]
+        private final float[] w1ByInput; // pesos da camada oculta por entrada [inputSize * hiddenSize]
         private final float[] b1; // [hiddenSize]
         private final float[] w2; // [hiddenSize]
         private final float b2;
 
+        /**
+         * Instância única da JVM: os pesos (e o modelo DL4J, se houver) não mudam depois de
+         * construídos, então todas as IAs os compartilham em vez de repetir ~200 KB por instância
+         */
+        static NeuralEvaluator shared() {
+            return Shared.INSTANCE;
+        }
+
+        // Criada na primeira chamada de shared()
+        private static final class Shared {
+            static final NeuralEvaluator INSTANCE = new NeuralEvaluator();
+        }
+
         NeuralEvaluator() {
             // Inicializa pesos de forma determinística (sem dependências externas)
             Random rng = new Random(42L);
-            w1 = new float[hiddenSize * inputSize];
+            float[] w1 = new float[hiddenSize * inputSize]; // [hiddenSize * inputSize]
             b1 = new float[hiddenSize];
             w2 = new float[hiddenSize];
             for (int i = 0; i < w1.length; i++) w1[i] = (rng.nextFloat() - 0.5f) * 0.05f;
             for (int i = 0; i < b1.length; i++) b1[i] = (rng.nextFloat() - 0.5f) * 0.05f;
             for (int i = 0; i < w2.length; i++) w2[i] = (rng.nextFloat() - 0.5f) * 0.05f;
             b2 = (rng.nextFloat() - 0.5f) * 0.05f;
+            // Transposta, para a primeira camada somar só as colunas das entradas ativas
+            w1ByInput = new float[inputSize * hiddenSize];
+            for (int i = 0; i < hiddenSize; i++) {
+                for (int j = 0; j < inputSize; j++) {
+                    w1ByInput[j * hiddenSize + i] = w1[i * inputSize + j];
+                }
+            }
             // Tenta carregar modelo DL4J via reflexão, se presente em resources (ex: models/chess_mlp.zip)
             try {
                 java.io.InputStream is = getClass().getClassLoader().getResourceAsStream("models/chess_mlp.zip");
@@ -308,6 +439,14 @@ public class ChessAI {
                     java.lang.reflect.Method restore = modelSerializerClass.getMethod("restoreMultiLayerNetwork", java.io.File.class);
                     dl4jModel = restore.invoke(null, temp);
                     temp.deleteOnExit();
+
+                    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                    Class<?> ndArrayClass = Class.forName("org.nd4j.linalg.api.ndarray.INDArray");
+                    createMatrix = lookup.unreflect(Class.forName("org.nd4j.linalg.factory.Nd4j")
+                            .getMethod("create", float[][].class));
+                    output = lookup.unreflect(dl4jModel.getClass().getMethod("output", ndArrayClass, boolean.class))
+                            .bindTo(dl4jModel);
+                    getFloat = lookup.unreflect(ndArrayClass.getMethod("getFloat", long.class));
                 }
             } catch (Throwable ignore) {
                 dl4jModel = null;
@@ -315,150 +454,211 @@ public class ChessAI {
             dl4jAvailable = (dl4jModel != null);
         }
 
-        int evaluate(Board board, boolean isWhite) {
-            float[] input = toInput(board);
-            float prediction = predict(input);
-            // Converte para escala tradicional
-            int score = Math.round(prediction * 100);
-            // Perspectiva do jogador (positivo bom para "isWhite")
-            return isWhite ? score : -score;
-        }
+        /**
+         * Posições acumuladas para uma única passada da rede (matriz [N x 768])
+         */
+        final class Batch {
+            // Linhas densas só existem com o DL4J; o MLP embutido usa os índices das entradas ativas
+            private final float[][] rows;
+            private final int[][] features;
+            private final int[] featureCounts;
+            private int size;
+
+            private Batch(int capacity) {
+                rows = dl4jAvailable ? new float[capacity][inputSize] : null;
+                features = new int[capacity][32];
+                featureCounts = new int[capacity];
+            }
 
-        private float[] toInput(Board board) {
-            // 12 planos x 64 (P,C,B,T,D,R)x(Brancas,Pretas) de forma simplificada
-            float[] input = new float[12 * 64];
-            int idx = 0;
-            for (int row = 0; row < 8; row++) {
-                for (int col = 0; col < 8; col++) {
-                    Position pos = new Position(row, col);
-                    Piece piece = board.getPieceAt(pos);
-                    // Mapeamento simples de peças
-                    int plane = pieceToPlane(piece);
-                    for (int p = 0; p < 12; p++) {
-                        input[idx++] = (p == plane) ? 1.0f : 0.0f;
+            /**
+             * Codifica a posição como a próxima linha do lote
+             */
+            void add(BitBoard board) {
+                int count = encode(board, features[size]);
+                featureCounts[size] = count;
+                if (rows != null) {
+                    float[] row = rows[size];
+                    java.util.Arrays.fill(row, 0f);
+                    for (int i = 0; i < count; i++) {
+                        row[features[size][i]] = 1.0f;
                     }
                 }
+                size++;
+            }
+
+            int size() {
+                return size;
+            }
+
+            void clear() {
+                size = 0;
             }
-            return input;
         }
 
-        private int pieceToPlane(Piece piece) {
-            if (piece == null) return -1;
-            int base = piece.isWhite() ? 0 : 6;
-            if (piece instanceof Pawn) return base + 0;
-            if (piece instanceof Knight) return base + 1;
-            if (piece instanceof Bishop) return base + 2;
-            if (piece instanceof Rook) return base + 3;
-            if (piece instanceof Queen) return base + 4;
-            if (piece instanceof King) return base + 5;
-            return -1;
+        /**
+         * Lote vazio com espaço para {@code capacity} posições
+         */
+        Batch newBatch(int capacity) {
+            return new Batch(capacity);
         }
 
-        private float predict(float[] input) {
+        /**
+         * Avalia todas as posições do lote numa única passada; {@code scores} recebe a pontuação
+         * de cada linha do ponto de vista das brancas
+         */
+        void evaluate(Batch batch, int[] scores) {
+            if (batch.size == 0) {
+                return;
+            }
             if (dl4jModel != null) {
                 try {
-                    // Usa DL4J via reflexão
-                    Class<?> nd4jFactory = Class.forName("org.nd4j.linalg.factory.Nd4j");
-                    java.lang.reflect.Method create = nd4jFactory.getMethod("create", float[].class);
-                    Object in = create.invoke(null, (Object) input);
-                    // reshape(1, input.length)
-                    java.lang.reflect.Method reshape = in.getClass().getMethod("reshape", int.class, int.class);
-                    in = reshape.invoke(in, 1, input.length);
-
-                    java.lang.reflect.Method output = dl4jModel.getClass().getMethod("output", in.getClass(), boolean.class);
-                    Object out = output.invoke(dl4jModel, in, false);
-                    java.lang.reflect.Method getFloat = out.getClass().getMethod("getFloat", int.class);
-                    return (float) getFloat.invoke(out, 0);
+                    float[][] rows = batch.size == batch.rows.length ? batch.rows
+                            : java.util.Arrays.copyOf(batch.rows, batch.size);
+                    Object out = output.invoke(createMatrix.invoke(rows), false);
+                    for (int i = 0; i < batch.size; i++) {
+                        scores[i] = toScore((float) getFloat.invoke(out, (long) i));
+                    }
+                    return;
                 } catch (Throwable ignore) {
                     // Falhou usar DL4J; cai para MLP embutido
                 }
             }
-            // MLP 1 camada oculta com tanh
+            for (int i = 0; i < batch.size; i++) {
+                scores[i] = toScore(predictEmbedded(batch.features[i], batch.featureCounts[i]));
+            }
+        }
+
+        int evaluate(BitBoard board, boolean isWhite) {
+            int[] active = new int[32];
+            int count = encode(board, active);
+            float prediction = dl4jModel != null ? predictDl4j(active, count) : predictEmbedded(active, count);
+            int score = toScore(prediction);
+            // Perspectiva do jogador (positivo bom para "isWhite")
+            return isWhite ? score : -score;
+        }
+
+        // Converte para escala tradicional
+        private static int toScore(float prediction) {
+            return Math.round(prediction * 100);
+        }
+
+        // 12 planos x 64 (P,C,B,T,D,R)x(Brancas,Pretas) de forma simplificada; o índice da peça no
+        // BitBoard já segue essa ordem de planos. Grava os índices das entradas valendo 1, em ordem crescente.
+        private int encode(BitBoard board, int[] active) {
+            int count = 0;
+            for (int sq = 0; sq < 64; sq++) {
+                int plane = board.pieceAt(sq);
+                if (plane != BitBoard.NO_PIECE) {
+                    active[count++] = sq * 12 + plane;
+                }
+            }
+            return count;
+        }
+
+        private float predictDl4j(int[] active, int count) {
+            try {
+                float[][] input = new float[1][inputSize];
+                for (int i = 0; i < count; i++) {
+                    input[0][active[i]] = 1.0f;
+                }
+                Object out = output.invoke(createMatrix.invoke(input), false);
+                return (float) getFloat.invoke(out, 0L);
+            } catch (Throwable ignore) {
+                // Falhou usar DL4J; cai para MLP embutido
+                return predictEmbedded(active, count);
+            }
+        }
+
+        // MLP 1 camada oculta com tanh. Como a entrada é 0/1 e tem no máximo 32 uns, a primeira
+        // camada soma só as colunas das entradas ativas (mesma ordem de soma da versão densa)
+        private float predictEmbedded(int[] active, int count) {
             float[] h = new float[hiddenSize];
-            int k = 0;
-            for (int i = 0; i < hiddenSize; i++) {
-                float sum = b1[i];
-                // dot(w1[i], input)
-                for (int j = 0; j < inputSize; j++) {
-                    sum += w1[k++] * input[j];
+            System.arraycopy(b1, 0, h, 0, hiddenSize);
+            for (int k = 0; k < count; k++) {
+                int column = active[k] * hiddenSize;
+                for (int i = 0; i < hiddenSize; i++) {
+                    h[i] += w1ByInput[column + i];
                 }
-                h[i] = (float) Math.tanh(sum);
             }
             float out = b2;
-            for (int i = 0; i < hiddenSize; i++) out += w2[i] * h[i];
+            for (int i = 0; i < hiddenSize; i++) out += w2[i] * (float) Math.tanh(h[i]);
             // Comprimi para faixa -1..1 via tanh final
             return (float) Math.tanh(out);
         }
-        
+
         boolean isDl4jAvailable() { return dl4jAvailable; }
     }
     
-    // Move ordering: prioriza capturas e movimentos que dão xeque
-    private int getMoveOrderingScore(Move move) {
-        int score = 0;
-        
-        // Capturas: peça capturada vale mais que peça que captura
-        if (move.getPieceCaptured() != null) {
-            score += getPieceValue(move.getPieceCaptured()) - getPieceValue(move.getPieceMoved());
-        }
-        
-        // Movimentos de peão (avanço)
-        if (move.getPieceMoved() instanceof Pawn) {
-            score += 10;
-        }
-        
-        // Movimentos de peças menores (cavalo, bispo)
-        if (move.getPieceMoved() instanceof Knight || move.getPieceMoved() instanceof Bishop) {
-            score += 5;
-        }
-        
-        return score;
+    /**
+     * Estado de busca de uma thread (tabuleiro, buffers, ordenação). O núcleo pontua do ponto de
+     * vista de quem joga, então a raiz, onde jogam as pretas, fica na perspectiva das pretas.
+     */
+    private AlphaBetaSearch newSearchWorker() {
+        LeafEvaluations leaves = new LeafEvaluations();
+        return new AlphaBetaSearch((position, alpha, beta) -> leaves.evaluate(position, position.isWhiteToMove()),
+                leaves);
     }
-    
-    // Minimax com poda alfa-beta para IA Suprema
-    private int minimax(Board board, int depth, boolean maximizingPlayer, int alpha, int beta) {
-        if (depth == 0) {
-            return evaluate(board, false);
-        }
-        
-        boolean isWhite = maximizingPlayer;
-        List<Move> moves = getAllPossibleMoves(board, isWhite);
-        
-        if (moves.isEmpty()) {
-            return evaluate(board, false);
-        }
-        
-        // Move ordering também na busca recursiva
-        if (supremeMode && depth > 1) {
-            moves.sort((m1, m2) -> {
-                int score1 = getMoveOrderingScore(m1);
-                int score2 = getMoveOrderingScore(m2);
-                return Integer.compare(score2, score1);
-            });
+
+    /**
+     * Avaliações em lote das folhas de uma thread de busca. Com o modelo DL4J, cada passada da
+     * rede tem um custo fixo alto (chamada nativa, alocação da matriz), então nos nós a um ply
+     * das folhas os filhos legais são codificados juntos numa matriz [N x 768] e avaliados de
+     * uma vez; a quiescência de cada filho encontra aqui a avaliação pronta. O MLP embutido não
+     * tem esse custo fixo e continua avaliando só as folhas que a busca visita.
+     */
+    private final class LeafEvaluations implements AlphaBetaSearch.FrontierListener {
+        private static final int CACHE_SIZE = 1 << 12;
+        private final long[] keys = new long[CACHE_SIZE];
+        private final int[] scores = new int[CACHE_SIZE]; // do ponto de vista das brancas
+        private final long[] batchKeys = new long[MoveGenerator.MAX_MOVES];
+        private final int[] batchScores = new int[MoveGenerator.MAX_MOVES];
+        private NeuralEvaluator.Batch batch; // criado na primeira fronteira
+        private int cacheSearch = -1;
+
+        @Override
+        public void frontier(BitBoard board, int[] moves, int total) {
+            if (!usesNeuralEvaluation() || !neuralEvaluator.isDl4jAvailable()) {
+                return;
+            }
+            if (batch == null) {
+                batch = neuralEvaluator.newBatch(MoveGenerator.MAX_MOVES);
+            }
+            prepareCache();
+            boolean white = board.isWhiteToMove();
+            batch.clear();
+            for (int i = 0; i < total; i++) {
+                board.makeMove(moves[i]);
+                if (!board.isInCheck(white)) {
+                    batchKeys[batch.size()] = board.getZobristKey();
+                    batch.add(board);
+                }
+                board.unmakeMove(moves[i]);
+            }
+            neuralEvaluator.evaluate(batch, batchScores);
+            for (int i = 0; i < batch.size(); i++) {
+                int slot = (int) batchKeys[i] & (CACHE_SIZE - 1);
+                keys[slot] = batchKeys[i];
+                scores[slot] = batchScores[i];
+            }
         }
-        
-        if (maximizingPlayer) {
-            int maxEval = Integer.MIN_VALUE;
-            for (Move move : moves) {
-                Board newBoard = board.copy();
-                newBoard.movePiece(move.getFrom(), move.getTo());
-                int eval = minimax(newBoard, depth - 1, false, alpha, beta);
-                maxEval = Math.max(maxEval, eval);
-                alpha = Math.max(alpha, eval);
-                if (beta <= alpha) break; // Poda beta
+
+        int evaluate(BitBoard board, boolean isWhite) {
+            if (cacheSearch == searchCount && usesNeuralEvaluation()) {
+                long key = board.getZobristKey();
+                int slot = (int) key & (CACHE_SIZE - 1);
+                if (keys[slot] == key) {
+                    return isWhite ? scores[slot] : -scores[slot];
+                }
             }
-            return maxEval;
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            for (Move move : moves) {
-                Board newBoard = board.copy();
-                newBoard.movePiece(move.getFrom(), move.getTo());
-                int eval = minimax(newBoard, depth - 1, true, alpha, beta);
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, eval);
-                if (beta <= alpha) break; // Poda alfa
+            return ChessAI.this.evaluate(board, isWhite);
+        }
+
+        // As avaliações só valem dentro de uma busca: entre elas o modo, a dificuldade ou o avaliador podem mudar
+        private void prepareCache() {
+            if (cacheSearch != searchCount) {
+                java.util.Arrays.fill(keys, 0L);
+                cacheSearch = searchCount;
             }
-            return minEval;
         }
     }
 }
@@ -1,8 +1,19 @@
 package model;
 
+import model.engine.BitBoard;
+import model.engine.Evaluator;
+import model.engine.MoveGenerator;
+import model.engine.PackedMove;
+import model.engine.SearchFeatures;
+import model.engine.SearchLimits;
+import model.engine.SearchTimer;
 import model.pieces.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Controla o fluxo do jogo de xadrez
@@ -14,6 +25,7 @@ public class Game {
     private Position selectedPosition;
     private boolean gameOver;
     private String gameResult;
+    // IAs criadas no primeiro uso: um jogo só de regras (ou num servidor) não paga por elas
     private ChessAI ai;
     private IASuprema iaSuprema;
     private IANivel8 iaNivel8;
@@ -35,7 +47,59 @@ public class Game {
     private boolean aiEnabled;
     private boolean aiSupreme; // modo IA Suprema
     private int halfmoveClock; // contador para regra dos 50 movimentos
-    private java.util.Map<String, Integer> positionCount; // para repetição tripla
+    private java.util.Map<Long, Integer> positionCount; // para repetição tripla (chave de Zobrist)
+    private final UndoInfo undoScratch = new UndoInfo(); // reaproveitado a cada movimento executado
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES]; // buffer do gerador de movimentos legais
+    private boolean ponderingEnabled;
+    private volatile Ponder ponder; // busca no tempo do jogador, até ser usada ou descartada
+    private ExecutorService ponderExecutor; // criado na primeira ponderação
+
+    /**
+     * Ponderação em andamento: a resposta da IA ao lance esperado do jogador
+     */
+    private static final class Ponder {
+        final Move expected;
+        final Board game; // tabuleiro da partida em que a ponderação começou
+        final long expectedKey; // chave de Zobrist da posição depois do lance esperado
+        final SearchTimer timer;
+        final Future<Move> reply;
+        volatile boolean hit; // o jogador fez o lance esperado
+
+        Ponder(Move expected, Board game, long expectedKey, SearchTimer timer, Future<Move> reply) {
+            this.expected = expected;
+            this.game = game;
+            this.expectedKey = expectedKey;
+            this.timer = timer;
+            this.reply = reply;
+        }
+
+        // A busca ainda corre e a partida chegou à posição em que ela começou
+        boolean isValidFor(Board position) {
+            return !timer.isStopped() && position.getZobristKey() == expectedKey;
+        }
+
+        boolean matches(Move move) {
+            if (!expected.getFrom().equals(move.getFrom()) || !expected.getTo().equals(move.getTo())) {
+                return false;
+            }
+            // Promoções ao mesmo destino só conferem se a peça escolhida for a mesma
+            return expected.getPromotionPiece() == null || move.getPromotionPiece() == null
+                    || expected.getPromotionPiece().getClass() == move.getPromotionPiece().getClass();
+        }
+
+        // Espera a busca terminar; null se ela falhou
+        Move await() {
+            try {
+                return reply.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                return null;
+            }
+        }
+    }
     
     public Game() {
         this.board = new Board();
@@ -45,15 +109,34 @@ public class Game {
         this.gameOver = false;
         this.gameResult = null;
 
-        this.ai = new ChessAI();
-        this.iaSuprema = new IASuprema();
-        this.iaNivel8 = new IANivel8();
         this.aiEnabled = false;
         this.aiSupreme = false;
         this.halfmoveClock = 0;
         this.positionCount = new java.util.HashMap<>();
     }
-    
+
+    // A IA pode ser criada pela thread da interface ou pela da busca: sincronizado para existir uma só
+    private synchronized ChessAI ai() {
+        if (ai == null) {
+            ai = new ChessAI();
+        }
+        return ai;
+    }
+
+    private synchronized IASuprema iaSuprema() {
+        if (iaSuprema == null) {
+            iaSuprema = new IASuprema();
+        }
+        return iaSuprema;
+    }
+
+    private synchronized IANivel8 iaNivel8() {
+        if (iaNivel8 == null) {
+            iaNivel8 = new IANivel8();
+        }
+        return iaNivel8;
+    }
+
     public Board getBoard() {
         return board;
     }
@@ -117,8 +200,8 @@ public class Game {
             return false;
         }
         
-        // Verifica se o movimento é válido
-        if (!piece.isValidMove(to, board)) {
+        // Verifica se o movimento é legal (o gerador já exclui capturar o rei e deixar o próprio rei em xeque)
+        if (!isLegalMove(selectedPosition, to, piece.isWhite())) {
             return false;
         }
         
@@ -128,22 +211,9 @@ public class Game {
         if (capturedPiece != null) {
             move.setPieceCaptured(capturedPiece);
         }
-
-        // Regra real: não é permitido "comer" o rei. Movimentos que apontam para o rei adversário são ilegais.
-        if (capturedPiece instanceof King) {
-            return false;
-        }
         
-        // Verifica se o movimento coloca o próprio rei em xeque
-        if (wouldPutKingInCheck(move)) {
-            return false;
-        }
-        
-        // Executa o movimento
-        // Trata en passant: se peão move duas casas, marca alvo; se captura via en passant, remove peão capturado
-        handleEnPassantPreMove(piece, move);
+        // Executa o movimento (roque, en passant e promoção são tratados pelo tabuleiro)
         executeMove(move);
-        handleEnPassantPostMove(piece, move);
         
         // Atualiza contadores para regras de empate
         updateGameStateCounters(move);
@@ -157,12 +227,19 @@ public class Game {
         
         // Verifica fim do jogo do lado que vai jogar agora
         checkGameEnd();
-        
-        // Se a IA está habilitada e é o turno dela, faz o movimento
-        if (aiEnabled && ai.shouldMakeMove(this)) {
-            makeAIMove();
+
+        // Confere a ponderação: com o lance esperado ela vira a busca da resposta
+        Ponder current = ponder;
+        if (current != null) {
+            if (!gameOver && current.game == board && current.isValidFor(board) && current.matches(move)) {
+                current.hit = true;
+                current.timer.ponderHit();
+            } else {
+                current.timer.stop();
+            }
         }
         
+        // A resposta da IA fica para quem chamou (ver isAITurn), para não travar a interface
         return true;
     }
     
@@ -170,100 +247,32 @@ public class Game {
      * Executa um movimento no tabuleiro
      */
     private void executeMove(Move move) {
-        board.movePiece(move.getFrom(), move.getTo());
-        
-        // Trata movimentos especiais
-        handleSpecialMoves(move);
-    }
-    
-    /**
-     * Trata movimentos especiais como roque, promoção, etc.
-     */
-    private void handleSpecialMoves(Move move) {
-        Piece piece = move.getPieceMoved();
-        
-        // Roque
-        if (piece instanceof King && Math.abs(move.getTo().getCol() - move.getFrom().getCol()) == 2) {
-            handleCastling(move);
+        board.makeMove(move, undoScratch);
+        // O tabuleiro não altera o movimento: o histórico registra aqui o que aconteceu
+        if (undoScratch.getCapturedPiece() != null) {
+            move.setPieceCaptured(undoScratch.getCapturedPiece());
         }
-        
-        // Promoção de peão
-        if (piece instanceof Pawn) {
-            int promotionRow = piece.isWhite() ? 0 : 7;
-            if (move.getTo().getRow() == promotionRow) {
-                handlePawnPromotion(move);
-            }
-        }
-    }
-
-    // Marca/consome estado de en passant
-    private void handleEnPassantPreMove(Piece piece, Move move) {
-        // Reset padrão
-        board.setEnPassantTarget(null);
-        if (piece instanceof Pawn) {
-            int rowDiff = Math.abs(move.getTo().getRow() - move.getFrom().getRow());
-            int colDiff = Math.abs(move.getTo().getCol() - move.getFrom().getCol());
-            // Duplo passo: marca casa atrás do peão como alvo
-            if (colDiff == 0 && rowDiff == 2) {
-                int midRow = (move.getFrom().getRow() + move.getTo().getRow()) / 2;
-                board.setEnPassantTarget(new Position(midRow, move.getFrom().getCol()));
-            }
-        }
-    }
-
-    private void handleEnPassantPostMove(Piece piece, Move move) {
-        if (piece instanceof Pawn) {
-            // Captura en passant: destino vazio, mas diagonal e alvo coincide
-            Position ep = board.getEnPassantTarget();
-            // Como já movemos a peça e resetamos antes, precisamos inferir: se movimento foi diagonal sem peça capturada originalmente
-            if (move.getPieceCaptured() == null) {
-                int rowDiff = Math.abs(move.getTo().getRow() - move.getFrom().getRow());
-                int colDiff = Math.abs(move.getTo().getCol() - move.getFrom().getCol());
-                if (rowDiff == 1 && colDiff == 1) {
-                    // Remove o peão capturado atrás do destino
-                    int direction = piece.isWhite() ? 1 : -1; // peão capturado está uma casa "atrás"
-                    Position capturedPos = new Position(move.getTo().getRow() + direction, move.getTo().getCol());
-                    Piece maybePawn = board.getPieceAt(capturedPos);
-                    if (maybePawn instanceof Pawn && maybePawn.isWhite() != piece.isWhite()) {
-                        board.removePieceAt(capturedPos);
-                        move.setEnPassant(true);
-                    }
-                }
-            }
+        move.setEnPassant(undoScratch.isEnPassant());
+        move.setCastling(undoScratch.isCastling());
+        Piece promoted = undoScratch.getPromotedPiece();
+        if (promoted != null && move.getPromotionPiece() == null) {
+            move.setPromotionPiece(BitBoard.createPiece(BitBoard.pieceIndex(promoted), move.getTo()));
         }
     }
     
     /**
-     * Trata o movimento de roque
+     * Verifica se o movimento de origem para destino está entre os movimentos legais da cor
      */
-    private void handleCastling(Move move) {
-        int direction = move.getTo().getCol() > move.getFrom().getCol() ? 1 : -1;
-        Position rookFrom = new Position(move.getFrom().getRow(), direction > 0 ? 7 : 0);
-        Position rookTo = new Position(move.getFrom().getRow(), move.getFrom().getCol() + direction);
-        
-        board.movePiece(rookFrom, rookTo);
-        move.setCastling(true);
-    }
-    
-    /**
-     * Trata a promoção de peão (por padrão promove para rainha)
-     */
-    private void handlePawnPromotion(Move move) {
-        Piece newQueen = new Queen(move.getPieceMoved().isWhite(), move.getTo());
-        board.setPieceAt(move.getTo(), newQueen);
-        move.setPromotionPiece(newQueen);
-    }
-    
-    /**
-     * Verifica se um movimento colocaria o próprio rei em xeque
-     */
-    private boolean wouldPutKingInCheck(Move move) {
-        // Cria uma cópia do tabuleiro para simular o movimento
-        Board tempBoard = board.copy();
-        tempBoard.movePiece(move.getFrom(), move.getTo());
-        
-        // Verifica se o rei está em xeque após o movimento
-        return isKingInCheck(tempBoard, move.getPieceMoved().isWhite());
+    private boolean isLegalMove(Position from, Position to, boolean isWhite) {
+        int total = generateLegalMoves(isWhite);
+        int fromSquare = from.getRow() * 8 + from.getCol();
+        int toSquare = to.getRow() * 8 + to.getCol();
+        for (int i = 0; i < total; i++) {
+            if (PackedMove.from(legalMoves[i]) == fromSquare && PackedMove.to(legalMoves[i]) == toSquare) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
@@ -276,18 +285,7 @@ public class Game {
         }
         
         // Verifica se alguma peça inimiga pode atacar o rei
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(new Position(row, col));
-                if (piece != null && piece.isWhite() != isWhite) {
-                    if (piece.isValidMove(kingPosition, board)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        
-        return false;
+        return board.isSquareAttacked(kingPosition, !isWhite);
     }
     
     /**
@@ -324,21 +322,15 @@ public class Game {
      * Verifica se há movimentos legais disponíveis para uma cor
      */
     private boolean hasLegalMoves(boolean isWhite) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(new Position(row, col));
-                if (piece != null && piece.isWhite() == isWhite) {
-                    List<Position> possibleMoves = piece.getPossibleMoves(board);
-                    for (Position move : possibleMoves) {
-                        Move testMove = new Move(piece.getPosition(), move, piece);
-                        if (!wouldPutKingInCheck(testMove)) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return generateLegalMoves(isWhite) > 0;
+    }
+
+    /**
+     * Gera os movimentos legais de uma cor em {@code legalMoves}, a partir de xeques e
+     * cravadas calculados na casa do rei (sem simular cada movimento). Retorna quantos são.
+     */
+    private int generateLegalMoves(boolean isWhite) {
+        return MoveGenerator.generateLegal(BitBoard.fromBoard(board, isWhite), legalMoves);
     }
     
     /**
@@ -361,8 +353,7 @@ public class Game {
     }
     
     private boolean isThreefoldRepetition() {
-        String currentKey = generatePositionKey();
-        return positionCount.getOrDefault(currentKey, 0) >= 3;
+        return positionCount.getOrDefault(board.getZobristKey(), 0) >= 3;
     }
     
     /**
@@ -377,6 +368,7 @@ public class Game {
         this.gameResult = null;
         this.halfmoveClock = 0;
         this.positionCount.clear();
+        discardPondering();
     }
     
     /**
@@ -392,23 +384,19 @@ public class Game {
             return new ArrayList<>();
         }
         
-        List<Position> possibleMoves = piece.getPossibleMoves(board);
-        List<Position> legalMoves = new ArrayList<>();
-        
-        // Filtra apenas movimentos que não colocam o rei em xeque
-        for (Position move : possibleMoves) {
-            Move testMove = new Move(selectedPosition, move, piece);
-            // Regra real: não permitir movimentos que capturam o rei adversário
-            Piece target = board.getPieceAt(move);
-            if (target instanceof King) {
-                continue;
-            }
-            if (!wouldPutKingInCheck(testMove)) {
-                legalMoves.add(move);
+        int total = generateLegalMoves(piece.isWhite());
+        int from = selectedPosition.getRow() * 8 + selectedPosition.getCol();
+        List<Position> destinations = new ArrayList<>();
+        int lastTo = -1;
+        for (int i = 0; i < total; i++) {
+            int move = legalMoves[i];
+            // As quatro promoções de um peão chegam à mesma casa (e são geradas em sequência)
+            if (PackedMove.from(move) == from && PackedMove.to(move) != lastTo) {
+                lastTo = PackedMove.to(move);
+                destinations.add(new Position(lastTo >>> 3, lastTo & 7));
             }
         }
-        
-        return legalMoves;
+        return destinations;
     }
     
     /**
@@ -416,6 +404,9 @@ public class Game {
      */
     public void setAIEnabled(boolean enabled) {
         this.aiEnabled = enabled;
+        if (!enabled) {
+            discardPondering();
+        }
     }
     
     /**
@@ -430,10 +421,10 @@ public class Game {
      */
     public void setAISupremeMode(boolean enabled) {
         this.aiSupreme = enabled;
-        this.ai.setSupremeMode(enabled);
+        ai().setSupremeMode(enabled);
         if (enabled) {
             // Ajusta a dificuldade para 10 ao ativar o modo supremo
-            this.ai.setDifficulty(10);
+            ai().setDifficulty(10);
         }
     }
 
@@ -448,87 +439,261 @@ public class Game {
      * Define a dificuldade da IA
      */
     public void setAIDifficulty(int difficulty) {
-        ai.setDifficulty(difficulty);
+        ai().setDifficulty(difficulty);
     }
     
     /**
      * Obtém a dificuldade da IA
      */
     public int getAIDifficulty() {
-        return ai.getDifficulty();
+        return ai().getDifficulty();
+    }
+
+    /**
+     * Define os limites de busca (tempo por jogada, nós, prazo final) de todas as IAs
+     */
+    public void setSearchLimits(SearchLimits limits) {
+        ai().setSearchLimits(limits);
+        iaSuprema().setSearchLimits(limits);
+        iaNivel8().setSearchLimits(limits);
+    }
+
+    /**
+     * Define a função de avaliação das três IAs (null = avaliação própria de cada uma). Descarta
+     * a ponderação; não deve ser chamado durante {@link #computeAIMove}.
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        // A ponderação buscaria com a tabela apagada e a avaliação trocada no meio
+        discardPondering();
+        ai().setEvaluator(evaluator);
+        iaSuprema().setEvaluator(evaluator);
+        iaNivel8().setEvaluator(evaluator);
+    }
+
+    /**
+     * Liga ou desliga as técnicas de busca (PVS, lance nulo, LMR, futilidade, aspiração) das três IAs
+     */
+    public void setSearchFeatures(SearchFeatures features) {
+        ai().setSearchFeatures(features);
+        iaSuprema().setSearchFeatures(features);
+        iaNivel8().setSearchFeatures(features);
+    }
+
+    /**
+     * Define a margem da mobilidade preguiçosa das IAs Suprema e Suprema 2 (0 = desativada)
+     */
+    public void setLazyMobilityMargin(int margin) {
+        iaSuprema().setLazyMobilityMargin(margin);
+        iaNivel8().setLazyMobilityMargin(margin);
+    }
+
+    /**
+     * Define quantas threads as IAs Suprema e Suprema 2 usam na busca
+     */
+    public void setSearchThreads(int threads) {
+        iaSuprema().setThreads(threads);
+        iaNivel8().setThreads(threads);
+    }
+
+    /**
+     * Define quantas threads dividem os movimentos da raiz em todas as IAs (1 = sequencial)
+     */
+    public void setRootParallelism(int threads) {
+        ai().setRootParallelism(threads);
+        iaSuprema().setRootParallelism(threads);
+        iaNivel8().setRootParallelism(threads);
     }
     
     /**
-     * Faz o movimento da IA
+     * Verifica se é a vez da IA jogar
      */
-    private void makeAIMove() {
-        Move aiMove;
+    public boolean isAITurn() {
+        return aiEnabled && !isWhiteTurn && !gameOver; // a IA joga de pretas
+    }
+
+    /**
+     * Calcula o movimento da IA (pretas) no tabuleiro dado, sem alterar o jogo. Recebe uma cópia
+     * do tabuleiro para poder rodar fora da thread da interface, que continua desenhando o original.
+     */
+    public Move computeAIMove(Board position) {
+        Ponder current = ponder;
+        if (current != null) {
+            // Uma ponderação descartada ainda precisa terminar antes de a IA buscar de novo
+            ponder = null;
+            Move reply = current.await();
+            // Só vale a resposta ao lance que o jogador fez, na posição recebida
+            if (current.hit && position.getZobristKey() == current.expectedKey) {
+                return reply;
+            }
+        }
+        return searchAIMove(position, new SearchTimer(activeSearchLimits()));
+    }
+
+    private Move searchAIMove(Board position, SearchTimer timer) {
         if (advancedAILevel == 1) {
             // IA Suprema
-            aiMove = iaSuprema.chooseBestMove(board, false);
+            return iaSuprema().chooseBestMove(position, false, timer);
         } else if (advancedAILevel == 2) {
             // IA Suprema 2 (Quiescência)
-            aiMove = iaNivel8.chooseBestMove(board, false);
-        } else {
-            aiMove = ai.makeBestMove(this);
-        }
-        if (aiMove != null) {
-            // Rejeita movimentos que capturam o rei ou deixam o rei da IA em xeque
-            Piece target = board.getPieceAt(aiMove.getTo());
-            boolean capturesKing = (target instanceof King);
-            boolean putsOwnKingInCheck = wouldPutKingInCheck(new Move(aiMove.getFrom(), aiMove.getTo(), aiMove.getPieceMoved()));
-
-            if (capturesKing || putsOwnKingInCheck) {
-                // Procura um movimento legal alternativo simples
-                Move fallback = findAnyLegalMove(false); // IA joga de pretas
-                if (fallback == null) {
-                    // Sem movimentos legais: estado de mate/afogamento será detectado
-                    return;
-                }
-                aiMove = fallback;
-            }
+            return iaNivel8().chooseBestMove(position, false, timer);
+        }
+        return ai().makeBestMove(position, timer);
+    }
+
+    private SearchLimits activeSearchLimits() {
+        if (advancedAILevel == 1) {
+            return iaSuprema().getSearchLimits();
+        } else if (advancedAILevel == 2) {
+            return iaNivel8().getSearchLimits();
+        }
+        return ai().getSearchLimits();
+    }
+
+    /**
+     * Liga ou desliga a ponderação: depois de jogar, a IA continua buscando a sua resposta ao
+     * lance que espera do jogador. Se ele fizer esse lance, a busca e a tabela de transposição
+     * já preenchida são aproveitadas e a resposta sai quase na hora; senão a busca é abortada.
+     */
+    public void setPonderingEnabled(boolean enabled) {
+        this.ponderingEnabled = enabled;
+        if (!enabled) {
+            discardPondering();
+        }
+    }
 
-            // Executa o movimento da IA
-            executeMove(aiMove);
+    public boolean isPonderingEnabled() {
+        return ponderingEnabled;
+    }
 
-            // Adiciona ao histórico
-            moveHistory.add(aiMove);
+    /**
+     * Lance do jogador sobre o qual a IA está ponderando, ou null
+     */
+    public Move getPonderMove() {
+        Ponder current = ponder;
+        return current == null || current.timer.isStopped() ? null : current.expected;
+    }
 
-            // Troca o turno de volta para o jogador
-            isWhiteTurn = !isWhiteTurn;
+    /**
+     * Começa a ponderar sobre o lance esperado do jogador (brancas), se houver um
+     */
+    private void startPondering() {
+        // Só as IAs que buscam têm tabela para prever o lance e algo a aproveitar
+        if (!ponderingEnabled || !aiEnabled || gameOver || (advancedAILevel == 0 && !aiSupreme)) {
+            return;
+        }
+        Ponder previous = ponder;
+        if (previous != null) {
+            // Sobrou uma ponderação abortada que ninguém esperou: uma busca por vez na IA
+            previous.timer.stop();
+            previous.await();
+            ponder = null;
+        }
+        Move expected = advancedAILevel == 1 ? iaSuprema().predictMove(board, true)
+                : advancedAILevel == 2 ? iaNivel8().predictMove(board, true)
+                : ai().predictMove(board, true);
+        if (expected == null) {
+            return;
+        }
+        Board position = board.copy();
+        position.makeMove(expected, new UndoInfo());
+        long expectedKey = position.getZobristKey();
+        SearchTimer timer = SearchTimer.pondering(activeSearchLimits());
+        if (ponderExecutor == null) {
+            ponderExecutor = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "ia-ponderacao");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ponder = new Ponder(expected, board, expectedKey, timer,
+                ponderExecutor.submit(() -> searchAIMove(position, timer)));
+    }
 
-            // Verifica fim do jogo do lado que vai jogar agora
-            checkGameEnd();
+    // Aborta a ponderação (ou a resposta que ela virou); computeAIMove ainda espera ela terminar
+    private void stopPondering() {
+        Ponder current = ponder;
+        if (current != null) {
+            current.timer.stop();
+        }
+    }
+
+    // Aborta a ponderação e espera ela terminar: o lance esperado deixa de valer (novo jogo, IA desligada)
+    private void discardPondering() {
+        Ponder current = ponder;
+        if (current != null) {
+            ponder = null;
+            current.timer.stop();
+            current.await();
+        }
+    }
 
-            // Se modo supremo permanecer ligado e ainda for turno da IA após alternância
-            if (aiEnabled && ai.shouldMakeMove(this)) {
-                // Chama recursivamente para permitir sequência caso necessário
-                makeAIMove();
+    /**
+     * Interrompe a busca da IA em andamento, de qualquer thread; {@link #computeAIMove} devolve
+     * logo o melhor movimento que já encontrou
+     */
+    public void stopAIThinking() {
+        // Só as IAs já criadas podem estar buscando
+        ChessAI chessAI;
+        IASuprema suprema;
+        IANivel8 suprema2;
+        synchronized (this) {
+            chessAI = ai;
+            suprema = iaSuprema;
+            suprema2 = iaNivel8;
+        }
+        if (chessAI != null) {
+            chessAI.stopSearch();
+        }
+        if (suprema != null) {
+            suprema.stopSearch();
+        }
+        if (suprema2 != null) {
+            suprema2.stopSearch();
+        }
+        stopPondering();
+    }
+
+    /**
+     * Aplica o movimento calculado por {@link #computeAIMove}. Retorna false se não há
+     * movimento legal para a IA (mate ou afogamento, já detectados).
+     */
+    public boolean applyAIMove(Move aiMove) {
+        if (gameOver || !isAITurn()) {
+            return false;
+        }
+        // Rejeita movimentos que capturam o rei ou deixam o rei da IA em xeque
+        if (aiMove == null || !isLegalMove(aiMove.getFrom(), aiMove.getTo(), false)) {
+            // Procura um movimento legal alternativo simples
+            aiMove = findAnyLegalMove(false); // IA joga de pretas
+            if (aiMove == null) {
+                return false;
             }
         }
+
+        // Executa o movimento da IA
+        executeMove(aiMove);
+        updateGameStateCounters(aiMove);
+
+        // Adiciona ao histórico
+        moveHistory.add(aiMove);
+
+        // Troca o turno de volta para o jogador
+        isWhiteTurn = !isWhiteTurn;
+
+        // Verifica fim do jogo do lado que vai jogar agora
+        checkGameEnd();
+
+        // Usa o tempo do jogador para buscar a próxima resposta
+        startPondering();
+        return true;
     }
 
     // Encontra qualquer movimento legal para a cor indicada (simples)
     private Move findAnyLegalMove(boolean isWhite) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(new Position(row, col));
-                if (piece != null && piece.isWhite() == isWhite) {
-                    List<Position> possible = piece.getPossibleMoves(board);
-                    for (Position to : possible) {
-                        Piece target = board.getPieceAt(to);
-                        if (target instanceof King) {
-                            continue; // não capturar rei
-                        }
-                        Move m = new Move(piece.getPosition(), to, piece);
-                        if (!wouldPutKingInCheck(m)) {
-                            return m;
-                        }
-                    }
-                }
-            }
+        if (generateLegalMoves(isWhite) == 0) {
+            return null;
         }
-        return null;
+        return PackedMove.toMove(legalMoves[0], board);
     }
     
     private void updateGameStateCounters(Move move) {
@@ -540,27 +705,6 @@ public class Game {
         }
 
         // Repetição tripla: conta posições
-        String positionKey = generatePositionKey();
-        positionCount.put(positionKey, positionCount.getOrDefault(positionKey, 0) + 1);
-    }
-
-    private String generatePositionKey() {
-        // Chave simples: peças + en passant + roque
-        StringBuilder key = new StringBuilder();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(new Position(row, col));
-                if (piece == null) {
-                    key.append(".");
-                } else {
-                    key.append(piece.getSymbol());
-                }
-            }
-        }
-        // Adiciona estado de en passant e roque
-        Position ep = board.getEnPassantTarget();
-        key.append(ep != null ? ep.toString() : "null");
-        key.append(isWhiteTurn ? "W" : "B");
-        return key.toString();
+        positionCount.merge(board.getZobristKey(), 1, Integer::sum);
     }
 }
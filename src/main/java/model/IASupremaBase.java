@@ -0,0 +1,233 @@
+package model;
+
+import model.engine.AlphaBetaSearch;
+import model.engine.BitBoard;
+import model.engine.Evaluator;
+import model.engine.IterativeDeepeningSearch;
+import model.engine.PackedMove;
+import model.engine.SearchEngine;
+import model.engine.SearchFeatures;
+import model.engine.SearchLimits;
+import model.engine.SearchListener;
+import model.engine.SearchResult;
+import model.engine.SearchTimer;
+import model.engine.TranspositionTable;
+
+/**
+ * Base das IAs Suprema: aprofundamento iterativo ({@link IterativeDeepeningSearch}) com a
+ * configuração de busca comum. Cada IA só fornece a sua avaliação própria e o seu nome.
+ */
+public abstract class IASupremaBase implements SearchEngine {
+    private static final long TEMPO_PADRAO_MS = 2000;
+
+    /**
+     * Avaliação própria de uma IA, do ponto de vista de quem joga. Com margem > 0, pode
+     * deixar a mobilidade de fora quando o resto da avaliação já cai longe da janela.
+     */
+    @FunctionalInterface
+    protected interface AvaliacaoPropria {
+        int avaliar(BitBoard tabuleiro, int alfa, int beta, int margemMobilidade);
+    }
+
+    private final AvaliacaoPropria avaliacaoPropria;
+    private final IterativeDeepeningSearch busca;
+    private SearchLimits limites = SearchLimits.moveTime(TEMPO_PADRAO_MS);
+    private volatile Evaluator avaliador; // null = avaliação própria (material, mobilidade, xeque)
+    private volatile int margemMobilidade; // 0 = mobilidade sempre calculada
+    private volatile int avaliacaoConcluida;
+
+    /**
+     * @param nomeThreads prefixo do nome das threads auxiliares da busca
+     * @param avaliacaoPropria avaliação usada quando nenhum {@link Evaluator} é configurado
+     */
+    protected IASupremaBase(String nomeThreads, AvaliacaoPropria avaliacaoPropria) {
+        this.avaliacaoPropria = avaliacaoPropria;
+        this.busca = new IterativeDeepeningSearch(nomeThreads, () -> new AlphaBetaSearch(this::avaliar));
+    }
+
+    /**
+     * Define o orçamento de memória da tabela de transposição (em MB)
+     */
+    public void setHashSizeMb(int tamanhoMb) {
+        busca.setHashSizeMb(tamanhoMb);
+    }
+
+    /**
+     * Tabela de transposição usada pela busca (null antes da primeira busca)
+     */
+    public TranspositionTable getTranspositionTable() {
+        return busca.getTranspositionTable();
+    }
+
+    /**
+     * Troca a função de avaliação (null = avaliação própria da IA). Apaga a tabela de transposição,
+     * cujas pontuações foram calculadas com a avaliação anterior.
+     */
+    @Override
+    public void setEvaluator(Evaluator avaliador) {
+        this.avaliador = avaliador;
+        busca.clearTranspositionTable();
+    }
+
+    @Override
+    public Evaluator getEvaluator() {
+        return avaliador;
+    }
+
+    /**
+     * Ativa a mobilidade preguiçosa da avaliação própria: nas folhas, se material e xeque já
+     * ficam a mais de {@code margem} centipeões fora da janela alfa-beta, a mobilidade não é
+     * calculada. Margens menores que o termo de mobilidade trocam precisão por velocidade;
+     * 0 desativa (padrão).
+     */
+    public void setLazyMobilityMargin(int margem) {
+        this.margemMobilidade = Math.max(0, margem);
+    }
+
+    public int getLazyMobilityMargin() {
+        return margemMobilidade;
+    }
+
+    /**
+     * Liga ou desliga as técnicas de busca (PVS, lance nulo, LMR, futilidade, aspiração)
+     */
+    public void setSearchFeatures(SearchFeatures recursos) {
+        busca.setFeatures(recursos);
+    }
+
+    public SearchFeatures getSearchFeatures() {
+        return busca.getFeatures();
+    }
+
+    /**
+     * Define os limites (profundidade, tempo, nós, prazo) usados por {@link #chooseBestMove(Board, boolean)}
+     */
+    public void setSearchLimits(SearchLimits limites) {
+        this.limites = limites;
+    }
+
+    public SearchLimits getSearchLimits() {
+        return limites;
+    }
+
+    /**
+     * Define quantas threads a busca usa (Lazy SMP). Com mais de uma thread, as auxiliares
+     * buscam a mesma posição em profundidades alternadas e compartilham a tabela de transposição.
+     */
+    public void setThreads(int threads) {
+        busca.setThreads(threads);
+    }
+
+    public int getThreads() {
+        return busca.getThreads();
+    }
+
+    /**
+     * Define quantas threads dividem os movimentos da raiz (1 = busca sequencial).
+     * Combinado com {@link #setThreads(int)}, a divisão vale para a busca principal.
+     */
+    public void setRootParallelism(int threads) {
+        busca.setRootParallelism(threads);
+    }
+
+    public int getRootParallelism() {
+        return busca.getRootParallelism();
+    }
+
+    /**
+     * Encerra as threads auxiliares (são recriadas na próxima busca, se necessário)
+     */
+    public void shutdown() {
+        busca.shutdown();
+    }
+
+    // Escolhe o melhor movimento usando os limites configurados
+    public Move chooseBestMove(Board board, boolean isWhite) {
+        return chooseBestMove(board, isWhite, limites);
+    }
+
+    /**
+     * Escolhe o melhor movimento com aprofundamento iterativo: busca as profundidades 1, 2, 3...
+     * até esgotar os limites e devolve o melhor movimento da iteração completa mais profunda.
+     */
+    public Move chooseBestMove(Board board, boolean isWhite, SearchLimits limites) {
+        return chooseBestMove(board, isWhite, new SearchTimer(limites));
+    }
+
+    /**
+     * Como acima, com um relógio criado por quem chama (por exemplo o de uma ponderação,
+     * {@link SearchTimer#pondering})
+     */
+    public Move chooseBestMove(Board board, boolean isWhite, SearchTimer relogio) {
+        SearchResult resultado = search(BitBoard.fromBoard(board, isWhite), relogio);
+        return resultado.hasMove() ? PackedMove.toMove(resultado.getBestMove(), board) : null;
+    }
+
+    /**
+     * Busca com aprofundamento iterativo (e Lazy SMP com mais de uma thread) sobre uma posição
+     * completa; buscas simultâneas nesta instância esperam a vez
+     */
+    @Override
+    public SearchResult search(BitBoard posicao, SearchTimer relogio) {
+        SearchResult resultado = busca.search(posicao, relogio);
+        avaliacaoConcluida = posicao.isWhiteToMove() ? resultado.getScore() : -resultado.getScore();
+        return resultado;
+    }
+
+    /**
+     * Lance que a última busca espera de quem joga na posição (o guardado na tabela de
+     * transposição), ou null se não houver
+     */
+    public Move predictMove(Board board, boolean isWhite) {
+        int movimento = busca.predictMove(BitBoard.fromBoard(board, isWhite));
+        return movimento == PackedMove.NONE ? null : PackedMove.toMove(movimento, board);
+    }
+
+    /**
+     * Profundidade da iteração completa mais profunda da última busca
+     */
+    public int getLastSearchDepth() {
+        return busca.getLastDepth();
+    }
+
+    /**
+     * Interrompe a busca em andamento, de qualquer thread; ela devolve o melhor movimento da
+     * última iteração completa
+     */
+    public void stopSearch() {
+        busca.stop();
+    }
+
+    /**
+     * Nós visitados na última busca, somando todas as threads
+     */
+    public long getLastSearchNodes() {
+        return busca.getLastNodes();
+    }
+
+    /**
+     * Avaliação, do ponto de vista das brancas, da iteração completa mais profunda da última busca
+     */
+    public int getLastSearchScore() {
+        return avaliacaoConcluida;
+    }
+
+    /**
+     * Define quem recebe o resultado de cada iteração concluída (profundidade, pontuação, nós,
+     * variante principal); null desliga
+     */
+    @Override
+    public void setSearchListener(SearchListener ouvinte) {
+        busca.setListener(ouvinte);
+    }
+
+    // Avaliação configurada ou a própria, do ponto de vista de quem joga
+    private int avaliar(BitBoard tabuleiro, int alfa, int beta) {
+        Evaluator configurado = avaliador;
+        if (configurado == null) {
+            return avaliacaoPropria.avaliar(tabuleiro, alfa, beta, margemMobilidade);
+        }
+        int pontuacao = configurado.evaluate(tabuleiro);
+        return tabuleiro.isWhiteToMove() ? pontuacao : -pontuacao;
+    }
+}
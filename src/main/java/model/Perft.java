@@ -0,0 +1,315 @@
+package model;
+
+import model.engine.BitBoard;
+import model.engine.MoveGenerator;
+import model.engine.PackedMove;
+import model.pieces.*;
+import java.util.List;
+
+/**
+ * Perft: conta as folhas da árvore de movimentos legais até uma profundidade, a partir de uma FEN.
+ *
+ * Mede o desempenho dos geradores de movimentos e confere as contagens de referência (que o
+ * PerftTest verifica a cada {@code mvn test}):
+ * o gerador legal ({@link MoveGenerator#generateLegal}, usado pelo {@link Game}), o pseudo-legal
+ * ({@link MoveGenerator#generate} + descarte dos movimentos que deixam o rei em xeque) e o
+ * caminho {@link Board} (Piece.getPossibleMoves + filtro de xeque).
+ * Uso:
+ * <pre>
+ *   java -cp target/classes model.Perft                              suíte de referência (sai com 1 se algo divergir)
+ *   java -cp target/classes model.Perft [--legal|--bitboard|--board] profundidade [fen]  conta os nós e mede nós/s
+ *   java -cp target/classes model.Perft divide [--legal|--bitboard|--board] profundidade [fen]  nós por movimento da raiz
+ * </pre>
+ */
+public class Perft {
+    public static final String POSICAO_INICIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Posições de referência com as contagens conhecidas (nome, FEN, profundidade, nós)
+    private static final Object[][] SUITE = {
+        {"posição inicial", POSICAO_INICIAL, 4, 197281L},
+        {"kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 3, 97862L},
+        {"final de torres (en passant)", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674624L},
+        {"promoções e roques", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 3, 9467L},
+        {"promoção com captura", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 3, 62379L},
+        {"meio-jogo simétrico", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 3, 89890L},
+        {"en passant ilegal (cravada)", "3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1", 6, 1134888L},
+        {"en passant ilegal (diagonal)", "8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1", 6, 1015133L},
+        {"en passant dá xeque", "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1", 6, 1440467L},
+        {"roque curto dá xeque", "5k2/8/8/8/8/8/8/4K2R w K - 0 1", 6, 661072L},
+        {"roque longo dá xeque", "3k4/8/8/8/8/8/8/R3K3 w Q - 0 1", 6, 803711L},
+        {"direitos de roque", "r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1", 4, 1274206L},
+        {"roque impedido", "r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1", 4, 1720476L},
+        {"promoção saindo do xeque", "2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1", 6, 3821001L},
+        {"xeque descoberto", "8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1", 5, 1004658L},
+        {"promoção dá xeque", "4k3/1P6/8/8/8/8/K7/8 w - - 0 1", 6, 217342L},
+        {"subpromoção dá xeque", "8/P1k5/K7/8/8/8/8/8 w - - 0 1", 6, 92683L},
+        {"auto-afogamento", "K1k5/8/P7/8/8/8/8/8 w - - 0 1", 6, 2217L},
+        {"afogamento e mate", "8/k1P5/8/1K6/8/8/8/8 w - - 0 1", 7, 567584L},
+        {"xeque duplo", "8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1", 4, 23527L},
+    };
+
+    // Caminhos comparados pela suíte, na ordem das colunas
+    private static final String[] CAMINHOS = {"--legal", "--bitboard", "--board"};
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.exit(executarSuite() ? 0 : 1);
+        }
+        int i = 0;
+        boolean divide = args[i].equals("divide");
+        if (divide) {
+            i++;
+        }
+        String caminho = "--legal";
+        if (i < args.length && args[i].startsWith("--")) {
+            caminho = args[i++];
+        }
+        if (i >= args.length || !java.util.Arrays.asList(CAMINHOS).contains(caminho)) {
+            System.err.println("Uso: model.Perft [divide] [--legal|--bitboard|--board] profundidade [fen]");
+            System.exit(2);
+        }
+        int profundidade = Integer.parseInt(args[i++]);
+        String fen = i < args.length ? String.join(" ", java.util.Arrays.copyOfRange(args, i, args.length)) : POSICAO_INICIAL;
+
+        if (divide) {
+            long total = caminho.equals("--board") ? divide(tabuleiroDaFen(fen), profundidade)
+                    : divide(BitBoard.fromFen(fen), profundidade, caminho.equals("--legal"));
+            System.out.println();
+            System.out.println("Nós: " + total);
+            return;
+        }
+        long inicio = System.nanoTime();
+        long nos = contar(caminho, fen, profundidade);
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("Nós: %d  tempo: %d ms  %s nós/s%n", nos, nanos / 1_000_000L, nosPorSegundo(nos, nanos));
+    }
+
+    /**
+     * Executa a suíte de referência nos três geradores; retorna false se alguma contagem divergir
+     */
+    public static boolean executarSuite() {
+        boolean ok = true;
+        long[] nosTotais = new long[CAMINHOS.length];
+        long[] nanosTotais = new long[CAMINHOS.length];
+        System.out.printf("%-30s %5s %10s  %-22s %-22s %-22s%n", "posição", "prof.", "esperado",
+                "legal (nós/s)", "pseudo-legal (nós/s)", "Board (nós/s)");
+        for (Object[] caso : SUITE) {
+            String nome = (String) caso[0];
+            String fen = (String) caso[1];
+            int profundidade = (Integer) caso[2];
+            long esperado = (Long) caso[3];
+
+            String[] colunas = new String[CAMINHOS.length];
+            for (int c = 0; c < CAMINHOS.length; c++) {
+                long inicio = System.nanoTime();
+                long nos = contar(CAMINHOS[c], fen, profundidade);
+                long nanos = System.nanoTime() - inicio;
+                nosTotais[c] += nos;
+                nanosTotais[c] += nanos;
+                colunas[c] = resultado(nos, esperado, nanos);
+                ok &= nos == esperado;
+            }
+            System.out.printf("%-30s %5d %10d  %-22s %-22s %-22s%n", nome, profundidade, esperado,
+                    colunas[0], colunas[1], colunas[2]);
+        }
+        System.out.printf("Total: legal %s nós/s; pseudo-legal %s nós/s; Board %s nós/s%n",
+                nosPorSegundo(nosTotais[0], nanosTotais[0]), nosPorSegundo(nosTotais[1], nanosTotais[1]),
+                nosPorSegundo(nosTotais[2], nanosTotais[2]));
+        System.out.println(ok ? "Todas as contagens conferem." : "FALHA: há contagens divergentes.");
+        return ok;
+    }
+
+    private static long contar(String caminho, String fen, int profundidade) {
+        switch (caminho) {
+            case "--board": return perft(tabuleiroDaFen(fen), profundidade);
+            case "--bitboard": return perft(BitBoard.fromFen(fen), profundidade);
+            default: return perftLegal(BitBoard.fromFen(fen), profundidade);
+        }
+    }
+
+    /**
+     * Perft com o gerador legal: no último nível basta contar os movimentos gerados
+     */
+    public static long perftLegal(BitBoard tabuleiro, int profundidade) {
+        return perftLegal(tabuleiro, profundidade, new int[profundidade + 1][MoveGenerator.MAX_MOVES]);
+    }
+
+    private static long perftLegal(BitBoard tabuleiro, int profundidade, int[][] buffers) {
+        if (profundidade == 0) {
+            return 1;
+        }
+        int[] movimentos = buffers[profundidade];
+        int total = MoveGenerator.generateLegal(tabuleiro, movimentos);
+        if (profundidade == 1) {
+            return total;
+        }
+        long nos = 0;
+        for (int i = 0; i < total; i++) {
+            tabuleiro.makeMove(movimentos[i]);
+            nos += perftLegal(tabuleiro, profundidade - 1, buffers);
+            tabuleiro.unmakeMove(movimentos[i]);
+        }
+        return nos;
+    }
+
+    /**
+     * Perft no caminho BitBoard: gerador pseudo-legal + descarte dos movimentos que deixam o rei em xeque
+     */
+    public static long perft(BitBoard tabuleiro, int profundidade) {
+        return perft(tabuleiro, profundidade, new int[profundidade + 1][MoveGenerator.MAX_MOVES]);
+    }
+
+    private static long perft(BitBoard tabuleiro, int profundidade, int[][] buffers) {
+        if (profundidade == 0) {
+            return 1;
+        }
+        boolean brancas = tabuleiro.isWhiteToMove();
+        int[] movimentos = buffers[profundidade];
+        int total = MoveGenerator.generate(tabuleiro, movimentos);
+        long nos = 0;
+        for (int i = 0; i < total; i++) {
+            tabuleiro.makeMove(movimentos[i]);
+            if (!tabuleiro.isInCheck(brancas)) {
+                nos += perft(tabuleiro, profundidade - 1, buffers);
+            }
+            tabuleiro.unmakeMove(movimentos[i]);
+        }
+        return nos;
+    }
+
+    /**
+     * Perft no caminho Board: os mesmos geradores e filtro de legalidade usados pelo {@link Game}
+     */
+    public static long perft(Board tabuleiro, int profundidade) {
+        return perft(tabuleiro, profundidade, novaPilha(profundidade));
+    }
+
+    private static long perft(Board tabuleiro, int profundidade, UndoInfo[] desfazer) {
+        if (profundidade == 0) {
+            return 1;
+        }
+        long nos = 0;
+        for (Move move : movimentosLegais(tabuleiro, desfazer[profundidade])) {
+            tabuleiro.makeMove(move, desfazer[profundidade]);
+            nos += perft(tabuleiro, profundidade - 1, desfazer);
+            tabuleiro.unmakeMove(move, desfazer[profundidade]);
+        }
+        return nos;
+    }
+
+    /**
+     * Nós por movimento da raiz (caminho BitBoard, com o gerador legal ou o pseudo-legal),
+     * para comparar com outro motor e achar o erro
+     */
+    public static long divide(BitBoard tabuleiro, int profundidade, boolean legal) {
+        boolean brancas = tabuleiro.isWhiteToMove();
+        int[] movimentos = new int[MoveGenerator.MAX_MOVES];
+        int total = legal ? MoveGenerator.generateLegal(tabuleiro, movimentos) : MoveGenerator.generate(tabuleiro, movimentos);
+        int[][] buffers = new int[Math.max(profundidade, 1)][MoveGenerator.MAX_MOVES];
+        long nos = 0;
+        for (int i = 0; i < total; i++) {
+            tabuleiro.makeMove(movimentos[i]);
+            if (!tabuleiro.isInCheck(brancas)) {
+                long parcial = legal ? perftLegal(tabuleiro, profundidade - 1, buffers) : perft(tabuleiro, profundidade - 1, buffers);
+                System.out.println(PackedMove.toUci(movimentos[i]) + ": " + parcial);
+                nos += parcial;
+            }
+            tabuleiro.unmakeMove(movimentos[i]);
+        }
+        return nos;
+    }
+
+    /**
+     * Nós por movimento da raiz (caminho Board)
+     */
+    public static long divide(Board tabuleiro, int profundidade) {
+        UndoInfo[] desfazer = novaPilha(profundidade);
+        long nos = 0;
+        for (Move move : movimentosLegais(tabuleiro, desfazer[profundidade])) {
+            String uci = paraUci(move);
+            tabuleiro.makeMove(move, desfazer[profundidade]);
+            long parcial = perft(tabuleiro, profundidade - 1, desfazer);
+            tabuleiro.unmakeMove(move, desfazer[profundidade]);
+            System.out.println(uci + ": " + parcial);
+            nos += parcial;
+        }
+        return nos;
+    }
+
+    /**
+     * Converte a FEN para um {@link Board} com as flags hasMoved coerentes com os direitos de roque
+     */
+    public static Board tabuleiroDaFen(String fen) {
+        return BitBoard.fromFen(fen).toBoard();
+    }
+
+    // Movimentos das peças do lado a jogar que não deixam o próprio rei em xeque; promoções geram as quatro peças
+    private static List<Move> movimentosLegais(Board tabuleiro, UndoInfo desfazer) {
+        boolean brancas = tabuleiro.isWhiteToMove();
+        List<Move> legais = new java.util.ArrayList<>();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = tabuleiro.getPieceAt(row, col);
+                if (piece == null || piece.isWhite() != brancas) {
+                    continue;
+                }
+                for (Position destino : piece.getPossibleMoves(tabuleiro)) {
+                    // Regra real: o rei adversário nunca é capturado
+                    if (tabuleiro.getPieceAt(destino) instanceof King) {
+                        continue;
+                    }
+                    if (piece instanceof Pawn && destino.getRow() == (brancas ? 0 : 7)) {
+                        for (Piece promovida : new Piece[] {new Queen(brancas, destino), new Rook(brancas, destino),
+                                new Bishop(brancas, destino), new Knight(brancas, destino)}) {
+                            Move move = new Move(piece.getPosition(), destino, piece);
+                            move.setPromotionPiece(promovida);
+                            adicionarSeLegal(tabuleiro, move, desfazer, legais);
+                        }
+                    } else {
+                        adicionarSeLegal(tabuleiro, new Move(piece.getPosition(), destino, piece), desfazer, legais);
+                    }
+                }
+            }
+        }
+        return legais;
+    }
+
+    private static void adicionarSeLegal(Board tabuleiro, Move move, UndoInfo desfazer, List<Move> legais) {
+        boolean brancas = move.getPieceMoved().isWhite();
+        tabuleiro.makeMove(move, desfazer);
+        Position rei = tabuleiro.findKing(brancas);
+        boolean emXeque = rei != null && tabuleiro.isSquareAttacked(rei, !brancas);
+        tabuleiro.unmakeMove(move, desfazer);
+        if (!emXeque) {
+            legais.add(move);
+        }
+    }
+
+    private static UndoInfo[] novaPilha(int profundidade) {
+        UndoInfo[] pilha = new UndoInfo[profundidade + 1];
+        for (int i = 0; i < pilha.length; i++) {
+            pilha[i] = new UndoInfo();
+        }
+        return pilha;
+    }
+
+    private static String paraUci(Move move) {
+        Position from = move.getFrom();
+        Position to = move.getTo();
+        String texto = PackedMove.squareName(from.getRow() * 8 + from.getCol())
+                + PackedMove.squareName(to.getRow() * 8 + to.getCol());
+        Piece promovida = move.getPromotionPiece();
+        if (promovida != null) {
+            texto += "nbrq".charAt(BitBoard.typeOf(BitBoard.pieceIndex(promovida)) - BitBoard.KNIGHT);
+        }
+        return texto;
+    }
+
+    private static String resultado(long nos, long esperado, long nanos) {
+        return (nos == esperado ? "ok " : "ERRO " + nos + " ") + nosPorSegundo(nos, nanos);
+    }
+
+    private static String nosPorSegundo(long nos, long nanos) {
+        return String.format("%,d", nos * 1_000_000_000L / Math.max(1, nanos));
+    }
+}
@@ -0,0 +1,260 @@
+package model;
+
+import model.engine.BitBoard;
+import model.engine.MoveGenerator;
+import model.engine.PackedMove;
+import model.engine.SearchFeatures;
+import model.engine.SearchLimits;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mede o efeito das técnicas de busca ({@link SearchFeatures}) jogando a IA contra ela mesma.
+ *
+ * Primeiro compara os nós visitados até uma profundidade fixa com todas as técnicas ligadas,
+ * com cada uma desligada e com todas desligadas. Depois, se um recurso for indicado, joga uma
+ * partida entre a versão completa e a versão sem esse recurso, a partir de aberturas fixas e
+ * com as cores trocadas a cada par, e estima a diferença de Elo.
+ * Uso:
+ * <pre>
+ *   java -cp target/classes model.SelfPlay [--suprema] [pvs|nulo|lmr|futilidade|aspiracao|todos] [partidas] [profundidade]
+ * </pre>
+ * Sem {@code --suprema} joga a IA Suprema 2 ({@link IANivel8}).
+ */
+public class SelfPlay {
+    private static final int PARTIDAS_PADRAO = 16;
+    private static final int PROFUNDIDADE_PADRAO = 4;
+    // Partidas mais longas que isso são dadas como empate
+    private static final int MAX_LANCES = 300;
+
+    // Posições da contagem de nós (nome, FEN)
+    private static final String[][] POSICOES = {
+        {"posição inicial", Perft.POSICAO_INICIAL},
+        {"italiana", "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4"},
+        {"kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"},
+        {"meio-jogo simétrico", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"},
+        {"final de torres", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"},
+    };
+
+    // Aberturas das partidas; cada uma é jogada duas vezes, com as cores trocadas
+    private static final String[] ABERTURAS = {
+        Perft.POSICAO_INICIAL,
+        "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+        "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5",
+        "rnbqkb1r/ppp1pppp/5n2/3p4/2PP4/8/PP2PPPP/RNBQKBNR w KQkq - 1 3",
+        "rnbqkbnr/pp2pppp/2p5/3p4/3PP3/8/PPP2PPP/RNBQKBNR w KQkq - 0 3",
+        "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+        "rnbqkbnr/pppp1ppp/4p3/8/3PP3/8/PPP2PPP/RNBQKBNR b KQkq - 0 2",
+        "rnbqkb1r/pppppp1p/5np1/8/2PP4/8/PP2PPPP/RNBQKBNR w KQkq - 0 3",
+    };
+
+    /**
+     * Uma das IAs, com as técnicas de busca escolhidas
+     */
+    private interface Motor {
+        Move escolher(Board tabuleiro, boolean brancas, SearchLimits limites);
+
+        long nos();
+
+        void encerrar();
+    }
+
+    public static void main(String[] args) {
+        int i = 0;
+        boolean suprema = args.length > i && args[i].equals("--suprema");
+        if (suprema) {
+            i++;
+        }
+        String recurso = args.length > i ? args[i++] : null;
+        int partidas = args.length > i ? Integer.parseInt(args[i++]) : PARTIDAS_PADRAO;
+        int profundidade = args.length > i ? Integer.parseInt(args[i]) : PROFUNDIDADE_PADRAO;
+        String nome = suprema ? "IA Suprema" : "IA Suprema 2";
+
+        System.out.println(nome + ": nós até a profundidade " + profundidade);
+        String[] variantes = {null, "pvs", "nulo", "lmr", "futilidade", "aspiracao", "todos"};
+        System.out.printf("%-22s", "");
+        for (String[] posicao : POSICOES) {
+            System.out.printf(" %20s", posicao[0]);
+        }
+        System.out.printf(" %12s%n", "tempo (ms)");
+        contarNos(suprema, SearchFeatures.all(), POSICOES[0][1], 3); // aquecimento do JIT
+        for (String variante : variantes) {
+            SearchFeatures recursos = desligar(variante);
+            System.out.printf("%-22s", variante == null ? "todas ligadas" : "sem " + variante);
+            long inicio = System.nanoTime();
+            for (String[] posicao : POSICOES) {
+                System.out.printf(" %20d", contarNos(suprema, recursos, posicao[1], profundidade));
+            }
+            System.out.printf(" %12d%n", (System.nanoTime() - inicio) / 1_000_000L);
+        }
+
+        if (recurso != null) {
+            System.out.println();
+            jogarMatch(suprema, recurso, partidas, profundidade);
+        }
+    }
+
+    /**
+     * Todas as técnicas ligadas menos a indicada ({@code null} = nenhuma desligada)
+     *
+     * @throws IllegalArgumentException se o nome não for conhecido
+     */
+    public static SearchFeatures desligar(String recurso) {
+        SearchFeatures todas = SearchFeatures.all();
+        if (recurso == null) {
+            return todas;
+        }
+        switch (recurso) {
+            case "pvs": return todas.withPvs(false);
+            case "nulo": return todas.withNullMove(false);
+            case "lmr": return todas.withLateMoveReductions(false);
+            case "futilidade": return todas.withFutility(false);
+            case "aspiracao": return todas.withAspiration(false);
+            case "todos": return SearchFeatures.none();
+            default: throw new IllegalArgumentException("recurso desconhecido: " + recurso);
+        }
+    }
+
+    private static long contarNos(boolean suprema, SearchFeatures recursos, String fen, int profundidade) {
+        Motor motor = criarMotor(suprema, recursos);
+        BitBoard posicao = BitBoard.fromFen(fen);
+        motor.escolher(posicao.toBoard(), posicao.isWhiteToMove(), SearchLimits.depth(profundidade));
+        long nos = motor.nos();
+        motor.encerrar();
+        return nos;
+    }
+
+    private static void jogarMatch(boolean suprema, String recurso, int partidas, int profundidade) {
+        Motor completo = criarMotor(suprema, SearchFeatures.all());
+        Motor reduzido = criarMotor(suprema, desligar(recurso));
+        SearchLimits limites = SearchLimits.depth(profundidade);
+        System.out.println("Partidas: todas ligadas x sem " + recurso + ", profundidade " + profundidade);
+        int vitorias = 0;
+        int empates = 0;
+        int derrotas = 0;
+        for (int partida = 0; partida < partidas; partida++) {
+            String abertura = ABERTURAS[(partida / 2) % ABERTURAS.length];
+            boolean completoDeBrancas = partida % 2 == 0;
+            double resultado = jogar(abertura, completoDeBrancas ? completo : reduzido,
+                    completoDeBrancas ? reduzido : completo, limites);
+            // Do ponto de vista da versão completa
+            double pontos = completoDeBrancas ? resultado : 1 - resultado;
+            if (pontos == 1) {
+                vitorias++;
+            } else if (pontos == 0) {
+                derrotas++;
+            } else {
+                empates++;
+            }
+            System.out.printf("partida %3d: %s  (+%d =%d -%d)%n", partida + 1,
+                    pontos == 1 ? "vitória" : pontos == 0 ? "derrota" : "empate", vitorias, empates, derrotas);
+        }
+        completo.encerrar();
+        reduzido.encerrar();
+        imprimirElo(vitorias, empates, derrotas);
+    }
+
+    /**
+     * Joga uma partida a partir da FEN e devolve o resultado das brancas (1, 0,5 ou 0)
+     */
+    private static double jogar(String fen, Motor brancas, Motor pretas, SearchLimits limites) {
+        BitBoard posicao = BitBoard.fromFen(fen);
+        int[] legais = new int[MoveGenerator.MAX_MOVES];
+        List<Long> chaves = new ArrayList<>();
+        for (int lance = 0; lance < MAX_LANCES; lance++) {
+            boolean vezDasBrancas = posicao.isWhiteToMove();
+            int total = MoveGenerator.generateLegal(posicao, legais);
+            if (total == 0) {
+                if (!posicao.isInCheck(vezDasBrancas)) {
+                    return 0.5; // afogamento
+                }
+                return vezDasBrancas ? 0 : 1;
+            }
+            chaves.add(posicao.getZobristKey());
+            if (posicao.getHalfmoveClock() >= 100 || repeticaoTripla(chaves) || materialInsuficiente(posicao)) {
+                return 0.5;
+            }
+            Motor motor = vezDasBrancas ? brancas : pretas;
+            Move escolhido = motor.escolher(posicao.toBoard(), vezDasBrancas, limites);
+            int movimento = escolhido == null ? PackedMove.NONE : PackedMove.fromMove(escolhido, legais, total);
+            if (movimento == PackedMove.NONE) {
+                throw new IllegalStateException("movimento ilegal da IA em " + posicao.toFen());
+            }
+            posicao.makeMove(movimento);
+        }
+        return 0.5;
+    }
+
+    private static boolean repeticaoTripla(List<Long> chaves) {
+        long atual = chaves.get(chaves.size() - 1);
+        int vezes = 0;
+        for (long chave : chaves) {
+            if (chave == atual) {
+                vezes++;
+            }
+        }
+        return vezes >= 3;
+    }
+
+    // Só reis, ou reis e uma única peça menor
+    private static boolean materialInsuficiente(BitBoard posicao) {
+        long pesadasEPeoes = 0;
+        for (boolean brancas : new boolean[] {true, false}) {
+            pesadasEPeoes |= posicao.getPieces(brancas, BitBoard.PAWN) | posicao.getPieces(brancas, BitBoard.ROOK)
+                    | posicao.getPieces(brancas, BitBoard.QUEEN);
+        }
+        return pesadasEPeoes == 0 && Long.bitCount(posicao.getAllOccupancy()) <= 3;
+    }
+
+    // Elo pela pontuação média, com intervalo de 95% pelo desvio padrão dos resultados
+    private static void imprimirElo(int vitorias, int empates, int derrotas) {
+        int partidas = vitorias + empates + derrotas;
+        double pontuacao = (vitorias + 0.5 * empates) / partidas;
+        double variancia = (vitorias * Math.pow(1 - pontuacao, 2) + empates * Math.pow(0.5 - pontuacao, 2)
+                + derrotas * Math.pow(pontuacao, 2)) / partidas;
+        double margem = 1.96 * Math.sqrt(variancia / partidas);
+        System.out.printf("Resultado: +%d =%d -%d, %.1f%% dos pontos%n", vitorias, empates, derrotas, 100 * pontuacao);
+        System.out.printf("Diferença de Elo: %+.0f (95%%: %+.0f a %+.0f)%n", elo(pontuacao),
+                elo(pontuacao - margem), elo(pontuacao + margem));
+    }
+
+    private static double elo(double pontuacao) {
+        double limitada = Math.min(0.999, Math.max(0.001, pontuacao));
+        return -400 * Math.log10(1 / limitada - 1);
+    }
+
+    private static Motor criarMotor(boolean suprema, SearchFeatures recursos) {
+        if (suprema) {
+            IASuprema ia = new IASuprema();
+            ia.setSearchFeatures(recursos);
+            return new Motor() {
+                public Move escolher(Board tabuleiro, boolean brancas, SearchLimits limites) {
+                    return ia.chooseBestMove(tabuleiro, brancas, limites);
+                }
+
+                public long nos() {
+                    return ia.getLastSearchNodes();
+                }
+
+                public void encerrar() {
+                    ia.shutdown();
+                }
+            };
+        }
+        IANivel8 ia = new IANivel8();
+        ia.setSearchFeatures(recursos);
+        return new Motor() {
+            public Move escolher(Board tabuleiro, boolean brancas, SearchLimits limites) {
+                return ia.chooseBestMove(tabuleiro, brancas, limites);
+            }
+
+            public long nos() {
+                return ia.getLastSearchNodes();
+            }
+
+            public void encerrar() {
+                ia.shutdown();
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package model;
+
+import model.engine.SearchLimits;
+
+/**
+ * Mede o ganho da busca paralela (Lazy SMP) em função do número de threads.
+ *
+ * Para cada contagem de threads (1, 2, 4... até o número de núcleos) mede o tempo até
+ * completar uma profundidade fixa e a profundidade alcançada num tempo fixo, nas duas IAs.
+ * Uso: {@code java -cp target/classes model.SmpBenchmark [profundidade] [tempoMs] [maxThreads]}
+ */
+public class SmpBenchmark {
+    private static final int PROFUNDIDADE_PADRAO = 5;
+    private static final long TEMPO_PADRAO_MS = 3000;
+
+    public static void main(String[] args) {
+        int profundidade = args.length > 0 ? Integer.parseInt(args[0]) : PROFUNDIDADE_PADRAO;
+        long tempoMs = args.length > 1 ? Long.parseLong(args[1]) : TEMPO_PADRAO_MS;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Board posicao = posicaoDeTeste();
+        System.out.println("Núcleos disponíveis: " + Runtime.getRuntime().availableProcessors());
+        for (String nome : new String[] {"IA Suprema", "IA Suprema 2"}) {
+            System.out.println();
+            System.out.println(nome + ": profundidade " + profundidade + " / tempo fixo " + tempoMs + " ms");
+            buscar(nome, 1, posicao, SearchLimits.depth(3)); // aquecimento do JIT
+            System.out.println("threads  tempo até prof.(ms)  speedup  prof. em tempo fixo");
+            long tempoBase = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long tempo = tempoAteProfundidade(nome, threads, posicao, profundidade);
+                if (threads == 1) {
+                    tempoBase = tempo;
+                }
+                int alcancada = profundidadeEmTempo(nome, threads, posicao, tempoMs);
+                System.out.printf("%7d  %19d  %7.2f  %19d%n", threads, tempo,
+                        (double) tempoBase / Math.max(1, tempo), alcancada);
+            }
+        }
+    }
+
+    private static long tempoAteProfundidade(String nome, int threads, Board posicao, int profundidade) {
+        long inicio = System.nanoTime();
+        buscar(nome, threads, posicao, SearchLimits.depth(profundidade));
+        return (System.nanoTime() - inicio) / 1_000_000L;
+    }
+
+    private static int profundidadeEmTempo(String nome, int threads, Board posicao, long tempoMs) {
+        return buscar(nome, threads, posicao, SearchLimits.moveTime(tempoMs));
+    }
+
+    // Cada medição usa um motor novo, para começar com a tabela de transposição vazia
+    private static int buscar(String nome, int threads, Board posicao, SearchLimits limites) {
+        if (nome.equals("IA Suprema")) {
+            IASuprema ia = new IASuprema();
+            ia.setThreads(threads);
+            ia.chooseBestMove(posicao, false, limites);
+            ia.shutdown();
+            return ia.getLastSearchDepth();
+        }
+        IANivel8 ia = new IANivel8();
+        ia.setThreads(threads);
+        ia.chooseBestMove(posicao, false, limites);
+        ia.shutdown();
+        return ia.getLastSearchDepth();
+    }
+
+    // Abertura italiana após 1.e4 e5 2.Cf3 Cc6 3.Bc4, pretas a jogar
+    private static Board posicaoDeTeste() {
+        Board board = new Board();
+        int[][] lances = {{6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2}, {7, 5, 4, 2}};
+        for (int[] lance : lances) {
+            Position origem = new Position(lance[0], lance[1]);
+            board.makeMove(new Move(origem, new Position(lance[2], lance[3]), board.getPieceAt(origem)));
+        }
+        return board;
+    }
+}
@@ -0,0 +1,60 @@
+package model;
+
+import model.pieces.Piece;
+
+/**
+ * Guarda o estado necessário para desfazer um movimento feito com {@link Board#makeMove(Move, UndoInfo)}.
+ * Pode ser reutilizado entre movimentos para evitar alocações durante a busca.
+ */
+public class UndoInfo {
+    Piece movedPiece;
+    boolean movedPieceHadMoved;
+    Piece capturedPiece;
+    Position capturedSquare;
+    boolean enPassant;
+    Position previousEnPassant;
+    int previousCastlingRights;
+    Piece castlingRook;
+    Position rookFrom;
+    Position rookTo;
+    boolean rookHadMoved;
+    Piece promotedPiece;
+
+    /**
+     * Limpa o estado para reutilização
+     */
+    void reset() {
+        movedPiece = null;
+        movedPieceHadMoved = false;
+        capturedPiece = null;
+        capturedSquare = null;
+        enPassant = false;
+        previousEnPassant = null;
+        previousCastlingRights = 0;
+        castlingRook = null;
+        rookFrom = null;
+        rookTo = null;
+        rookHadMoved = false;
+        promotedPiece = null;
+    }
+
+    public Piece getCapturedPiece() {
+        return capturedPiece;
+    }
+
+    /**
+     * Peça colocada na promoção. Depois de {@link Board#unmakeMove} o tabuleiro a reaproveita na
+     * próxima promoção da mesma cor e tipo; quem quiser guardá-la deve fazer uma cópia.
+     */
+    public Piece getPromotedPiece() {
+        return promotedPiece;
+    }
+
+    public boolean isEnPassant() {
+        return enPassant;
+    }
+
+    public boolean isCastling() {
+        return castlingRook != null;
+    }
+}
@@ -0,0 +1,289 @@
+package model.engine;
+
+import static model.engine.BitBoard.*;
+
+/**
+ * Núcleo de busca compartilhado pelas IAs: negamax com poda alfa-beta, tabela de transposição,
+ * ordenação por {@link MoveOrdering} e {@link Quiescence} nas folhas. As pontuações são sempre
+ * do ponto de vista de quem joga; cada IA adapta a sua avaliação por {@link Quiescence.StaticEvaluation}.
+ *
+ * Sobre o alfa-beta, as técnicas de {@link SearchFeatures} que atuam dentro da árvore:
+ * <ul>
+ *   <li>PVS: o primeiro filho usa a janela cheia e os demais uma janela nula, rebuscados só
+ *       quando superam alfa;</li>
+ *   <li>lance nulo: se mesmo passando a vez a posição fica acima de beta, o nó é cortado com uma
+ *       busca reduzida ({@code R} = 2, ou 3 em profundidades maiores). Desligado em xeque, em nós
+ *       de variante principal e quando o lado a jogar só tem rei e peões, onde o zugzwang é comum;</li>
+ *   <li>LMR: lances quietos depois dos três primeiros perdem um ply (dois, bem no fim da lista e
+ *       em profundidades maiores) e são rebuscados por inteiro se surpreenderem;</li>
+ *   <li>futilidade: a um ou dois plies das folhas, se a avaliação estática mais uma margem não
+ *       alcança alfa, os lances quietos que não dão xeque são pulados.</li>
+ * </ul>
+ * As janelas de aspiração ficam na raiz, no aprofundamento iterativo de cada IA. Um nó que chega
+ * ao horizonte em xeque é estendido em um ply, para que mates e fugas não sejam avaliados como
+ * posição quieta.
+ *
+ * Os movimentos são pseudo-legais; os que deixam o próprio rei em xeque são descartados depois de
+ * feitos. Sem nenhum movimento legal, o nó vale mate ({@link #MATE} menos a distância até a raiz)
+ * ou empate por afogamento.
+ *
+ * Cada thread de busca usa a sua instância, com tabuleiro e buffers próprios; a tabela de
+ * transposição é compartilhada.
+ */
+public final class AlphaBetaSearch {
+    /**
+     * Recebe os movimentos de um nó a um ply das folhas antes de serem buscados. Os filhos vão
+     * direto para a quiescência, que começa pela avaliação estática de cada um; quem avalia em
+     * lote aproveita para avaliar todos de uma vez. O tabuleiro deve voltar como estava.
+     */
+    @FunctionalInterface
+    public interface FrontierListener {
+        void frontier(BitBoard board, int[] moves, int total);
+    }
+
+    /** Janela "infinita" simétrica: -Integer.MIN_VALUE estoura, por isso não é usada */
+    public static final int INFINITY = 1_000_000;
+    /** Pontuação de mate na raiz; mates mais distantes valem um ponto a menos por ply */
+    public static final int MATE = 100_000;
+    /** Meia largura da janela de aspiração, em centipeões */
+    public static final int ASPIRATION_WINDOW = 50;
+
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH + 1;
+    // Margem da poda de futilidade por profundidade restante
+    private static final int[] FUTILITY_MARGIN = {0, 200, 500};
+
+    private final BitBoard board = new BitBoard();
+    private final Quiescence.StaticEvaluation evaluation;
+    private final Quiescence quiescence;
+    private final MoveOrdering ordering = new MoveOrdering();
+    // Buffers indexados pelo ply, alocados uma única vez
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] orderScores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    // Movimento feito em cada ply (NONE no lance nulo), para o contra-lance
+    private final int[] played = new int[MAX_PLY];
+    private int ply;
+
+    private TranspositionTable table;
+    private SearchTimer timer;
+    private SearchFeatures features = SearchFeatures.all();
+    private final FrontierListener frontierListener;
+
+    public AlphaBetaSearch(Quiescence.StaticEvaluation evaluation) {
+        this(evaluation, null);
+    }
+
+    public AlphaBetaSearch(Quiescence.StaticEvaluation evaluation, FrontierListener frontierListener) {
+        this.evaluation = evaluation;
+        this.quiescence = new Quiescence(evaluation);
+        this.frontierListener = frontierListener;
+    }
+
+    /**
+     * Prepara uma nova busca a partir da posição: copia o tabuleiro e renova a ordenação
+     */
+    public void start(BitBoard position, TranspositionTable table, SearchTimer timer, SearchFeatures features) {
+        attach(position, table, timer, features);
+        ordering.newSearch();
+    }
+
+    /**
+     * Como {@link #start}, mas mantém o que a ordenação aprendeu. Usado pelas threads que
+     * recebem movimentos avulsos da raiz.
+     */
+    public void attach(BitBoard position, TranspositionTable table, SearchTimer timer, SearchFeatures features) {
+        board.copyFrom(position);
+        this.table = table;
+        this.timer = timer;
+        this.features = features;
+        ply = 0;
+    }
+
+    /**
+     * Tabuleiro desta busca (a posição da raiz entre as chamadas)
+     */
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    public SearchTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Ordena os movimentos da raiz pelo que a ordenação sabe até agora (capturas por MVV-LVA,
+     * depois o histórico)
+     */
+    public void orderRootMoves(int[] rootMoves, int total) {
+        int[] scores = orderScores[0];
+        ordering.score(board, rootMoves, total, scores, PackedMove.NONE, 0, PackedMove.NONE);
+        MoveOrdering.sort(rootMoves, scores, total);
+    }
+
+    /**
+     * Busca um movimento da raiz com a janela dada; pontuação do ponto de vista de quem joga na raiz.
+     * Com PVS, os movimentos depois do primeiro começam com janela nula.
+     */
+    public int searchRootMove(int move, int depth, int alpha, int beta, boolean firstMove) {
+        makeMove(move);
+        int score;
+        if (firstMove || !features.isPvs()) {
+            score = -search(depth - 1, -beta, -alpha, true);
+        } else {
+            score = -search(depth - 1, -alpha - 1, -alpha, true);
+            if (score > alpha && score < beta && !timer.isStopped()) {
+                score = -search(depth - 1, -beta, -alpha, true);
+            }
+        }
+        unmakeMove(move);
+        return score;
+    }
+
+    private int search(int depth, int alpha, int beta, boolean allowNull) {
+        if (timer.countNode()) {
+            return 0; // busca abortada; o valor é descartado
+        }
+        if (depth <= 0) {
+            // Em xeque a quiescência não vê as fugas nem o mate: o nó ganha um ply de busca completa
+            if (ply >= MAX_PLY - 1 || !board.isInCheck(board.isWhiteToMove())) {
+                return quiescence.search(board, timer, alpha, beta);
+            }
+            depth = 1;
+        }
+        long key = board.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.moveOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int value = fromTable(TranspositionTable.scoreOf(entry));
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && value >= beta)
+                        || (bound == TranspositionTable.UPPER && value <= alpha)) {
+                    return value;
+                }
+            }
+        }
+
+        boolean white = board.isWhiteToMove();
+        boolean pvNode = beta - alpha > 1;
+        boolean inCheck = board.isInCheck(white);
+        boolean nullMove = features.isNullMove() && allowNull && !pvNode && !inCheck && depth >= 3
+                && hasPiecesBesidesPawns(white);
+        boolean futilityNode = features.isFutility() && !pvNode && !inCheck && depth < FUTILITY_MARGIN.length;
+        int staticEval = nullMove || futilityNode ? evaluation.evaluate(board, alpha, beta) : 0;
+
+        if (nullMove && staticEval >= beta) {
+            int reduction = depth > 6 ? 3 : 2;
+            board.makeNullMove();
+            played[ply++] = PackedMove.NONE;
+            int score = -search(depth - 1 - reduction, -beta, -beta + 1, false);
+            board.unmakeNullMove();
+            ply--;
+            if (timer.isStopped()) {
+                return 0;
+            }
+            if (score >= beta) {
+                return beta;
+            }
+        }
+        boolean futile = futilityNode && staticEval + FUTILITY_MARGIN[depth] <= alpha;
+
+        int[] moveList = moves[ply];
+        int total = MoveGenerator.generate(board, moveList);
+        if (depth == 1 && frontierListener != null) {
+            frontierListener.frontier(board, moveList, total);
+        }
+        int[] scores = orderScores[ply];
+        int previousMove = ply > 0 ? played[ply - 1] : PackedMove.NONE;
+        ordering.score(board, moveList, total, scores, hashMove, ply, previousMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int best = PackedMove.NONE;
+        int searched = 0;
+        int legal = 0;
+        for (int i = 0; i < total; i++) {
+            int move = MoveOrdering.pickNext(moveList, scores, i, total);
+            boolean quiet = !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+            makeMove(move);
+            if (board.isInCheck(white)) {
+                unmakeMove(move); // ilegal: deixa o rei em xeque
+                continue;
+            }
+            legal++;
+            boolean givesCheck = quiet && (futile || searched >= 3) && board.isInCheck(!white);
+            if (futile && quiet && searched > 0 && !givesCheck) {
+                unmakeMove(move);
+                continue;
+            }
+            int score;
+            if (searched == 0) {
+                score = -search(depth - 1, -beta, -alpha, true);
+            } else {
+                int reduction = 0;
+                if (features.isLateMoveReductions() && quiet && !inCheck && !givesCheck
+                        && depth >= 3 && searched >= 3) {
+                    reduction = depth >= 6 && searched >= 6 ? 2 : 1;
+                }
+                // Com PVS a primeira tentativa usa janela nula; sem PVS, a janela cheia
+                int childBeta = features.isPvs() ? alpha + 1 : beta;
+                score = -search(depth - 1 - reduction, -childBeta, -alpha, true);
+                if (reduction > 0 && score > alpha && !timer.isStopped()) {
+                    score = -search(depth - 1, -childBeta, -alpha, true);
+                }
+                if (childBeta != beta && score > alpha && score < beta && !timer.isStopped()) {
+                    score = -search(depth - 1, -beta, -alpha, true);
+                }
+            }
+            unmakeMove(move);
+            if (timer.isStopped()) {
+                return 0;
+            }
+            searched++;
+            if (score > bestScore) {
+                bestScore = score;
+                best = move;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+            if (alpha >= beta) {
+                ordering.recordCutoff(moveList, i, white, ply, depth, previousMove);
+                break;
+            }
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER
+                : bestScore >= beta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+        table.store(key, best, depth, bound, toTable(bestScore));
+        return bestScore;
+    }
+
+    // Na tabela o mate é guardado como distância a partir do nó, não da raiz
+    private int toTable(int score) {
+        return score > MATE - MAX_PLY ? score + ply : score < -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private int fromTable(int score) {
+        return score > MATE - MAX_PLY ? score - ply : score < -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    // Sem cavalo, bispo, torre ou dama o lance nulo erra em posições de zugzwang
+    private boolean hasPiecesBesidesPawns(boolean white) {
+        return (board.getOccupancy(white) & ~board.getPieces(white, PAWN) & ~board.getPieces(white, KING)) != 0;
+    }
+
+    private void makeMove(int move) {
+        board.makeMove(move);
+        played[ply++] = move;
+    }
+
+    private void unmakeMove(int move) {
+        board.unmakeMove(move);
+        ply--;
+    }
+}
@@ -0,0 +1,167 @@
+package model.engine;
+
+/**
+ * Tabelas de ataque pré-calculadas para cavalo, rei, peão e raios das peças deslizantes.
+ *
+ * Usa a mesma numeração de casas de {@link BitBoard} (linha * 8 + coluna, a8 = 0).
+ * As peças deslizantes usam o método clássico de raios: o primeiro bloqueador de
+ * cada raio é encontrado com uma varredura de bits, sem laços por casa.
+ */
+public final class AttackTables {
+    // Direções: as quatro primeiras são ortogonais, as quatro últimas diagonais
+    public static final int NORTH = 0;      // linha - 1
+    public static final int SOUTH = 1;      // linha + 1
+    public static final int EAST = 2;       // coluna + 1
+    public static final int WEST = 3;       // coluna - 1
+    public static final int NORTH_EAST = 4;
+    public static final int NORTH_WEST = 5;
+    public static final int SOUTH_EAST = 6;
+    public static final int SOUTH_WEST = 7;
+
+    private static final int[] DIR_ROW = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DIR_COL = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final int[] OPPOSITE = {SOUTH, NORTH, WEST, EAST, SOUTH_WEST, SOUTH_EAST, NORTH_WEST, NORTH_EAST};
+
+    /** Casas atacadas por um cavalo em cada casa */
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    /** Casas atacadas por um rei em cada casa */
+    public static final long[] KING_ATTACKS = new long[64];
+    /** Casas atacadas por um peão [cor][casa] */
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+    /** Máscara do raio [direção][casa], sem incluir a própria casa */
+    public static final long[][] RAY_MASKS = new long[8][64];
+
+    /** Mesmas tabelas em forma de lista de casas, para tabuleiros sem bitboards */
+    public static final int[][] KNIGHT_SQUARES = new int[64][];
+    public static final int[][] KING_SQUARES = new int[64][];
+    /** Casas do raio [direção][casa], da mais próxima para a mais distante */
+    public static final int[][][] RAY_SQUARES = new int[8][64][];
+    /** Casas estritamente entre duas casas alinhadas [casa][casa] (0 se não estiverem alinhadas) */
+    public static final long[][] BETWEEN = new long[64][64];
+    /** Linha inteira que passa por duas casas alinhadas [casa][casa] (0 se não estiverem alinhadas) */
+    public static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightOffsets = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq >>> 3;
+            int col = sq & 7;
+
+            KNIGHT_ATTACKS[sq] = offsetsMask(row, col, knightOffsets);
+            KNIGHT_SQUARES[sq] = toSquares(KNIGHT_ATTACKS[sq]);
+
+            long king = 0L;
+            for (int d = 0; d < 8; d++) {
+                king |= bitAt(row + DIR_ROW[d], col + DIR_COL[d]);
+            }
+            KING_ATTACKS[sq] = king;
+            KING_SQUARES[sq] = toSquares(king);
+
+            // Brancas sobem no tabuleiro (linha diminui), pretas descem
+            PAWN_ATTACKS[BitBoard.WHITE][sq] = bitAt(row - 1, col - 1) | bitAt(row - 1, col + 1);
+            PAWN_ATTACKS[BitBoard.BLACK][sq] = bitAt(row + 1, col - 1) | bitAt(row + 1, col + 1);
+
+            for (int d = 0; d < 8; d++) {
+                int length = 0;
+                int r = row + DIR_ROW[d];
+                int c = col + DIR_COL[d];
+                int[] squares = new int[7];
+                long mask = 0L;
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    squares[length++] = r * 8 + c;
+                    mask |= 1L << (r * 8 + c);
+                    r += DIR_ROW[d];
+                    c += DIR_COL[d];
+                }
+                RAY_MASKS[d][sq] = mask;
+                RAY_SQUARES[d][sq] = java.util.Arrays.copyOf(squares, length);
+            }
+        }
+        // Depende dos raios de todas as casas, por isso num segundo passo
+        for (int sq = 0; sq < 64; sq++) {
+            for (int d = 0; d < 8; d++) {
+                long line = RAY_MASKS[d][sq] | RAY_MASKS[OPPOSITE[d]][sq] | (1L << sq);
+                long between = 0L;
+                for (int target : RAY_SQUARES[d][sq]) {
+                    BETWEEN[sq][target] = between;
+                    LINE[sq][target] = line;
+                    between |= 1L << target;
+                }
+            }
+        }
+    }
+
+    private AttackTables() {}
+
+    /**
+     * Indica se a direção é ortogonal (torre/rainha) ou diagonal (bispo/rainha)
+     */
+    public static boolean isOrthogonal(int direction) {
+        return direction < 4;
+    }
+
+    /**
+     * Ataques de torre a partir de uma casa, dado o conjunto de casas ocupadas
+     */
+    public static long rookAttacks(int sq, long occupied) {
+        return positiveRay(sq, occupied, SOUTH) | positiveRay(sq, occupied, EAST)
+                | negativeRay(sq, occupied, NORTH) | negativeRay(sq, occupied, WEST);
+    }
+
+    /**
+     * Ataques de bispo a partir de uma casa, dado o conjunto de casas ocupadas
+     */
+    public static long bishopAttacks(int sq, long occupied) {
+        return positiveRay(sq, occupied, SOUTH_EAST) | positiveRay(sq, occupied, SOUTH_WEST)
+                | negativeRay(sq, occupied, NORTH_EAST) | negativeRay(sq, occupied, NORTH_WEST);
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    // Raios que crescem no índice da casa: o bloqueador mais próximo é o bit menos significativo
+    private static long positiveRay(int sq, long occupied, int direction) {
+        long ray = RAY_MASKS[direction][sq];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAY_MASKS[direction][Long.numberOfTrailingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    // Raios que decrescem no índice da casa: o bloqueador mais próximo é o bit mais significativo
+    private static long negativeRay(int sq, long occupied, int direction) {
+        long ray = RAY_MASKS[direction][sq];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAY_MASKS[direction][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long offsetsMask(int row, int col, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            mask |= bitAt(row + offset[0], col + offset[1]);
+        }
+        return mask;
+    }
+
+    private static long bitAt(int row, int col) {
+        if (row < 0 || row >= 8 || col < 0 || col >= 8) {
+            return 0L;
+        }
+        return 1L << (row * 8 + col);
+    }
+
+    private static int[] toSquares(long mask) {
+        int[] squares = new int[Long.bitCount(mask)];
+        int i = 0;
+        while (mask != 0) {
+            squares[i++] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return squares;
+    }
+}
@@ -0,0 +1,710 @@
+package model.engine;
+
+import model.Board;
+import model.Position;
+import model.pieces.*;
+
+/**
+ * Representação do tabuleiro em bitboards (64 bits por conjunto de peças).
+ *
+ * As casas seguem a mesma numeração de {@link Position}: índice = linha * 8 + coluna,
+ * com a linha 0 sendo a oitava fileira (lado das pretas). Assim a8 = 0 e h1 = 63.
+ * As peças são indexadas por cor * 6 + tipo, na mesma ordem de planos usada pelo
+ * avaliador neural (P, C, B, T, D, R; brancas primeiro).
+ */
+public class BitBoard {
+    // Tipos de peça
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    // Cores
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // Direitos de roque
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    public static final int NO_SQUARE = -1;
+    public static final int NO_PIECE = -1;
+
+    // Casas usadas no roque
+    public static final int A8 = 0, E8 = 4, H8 = 7;
+    public static final int A1 = 56, E1 = 60, H1 = 63;
+
+    /** Quantos movimentos podem ser feitos sem desfazer (limita a profundidade da busca) */
+    public static final int MAX_HISTORY = 512;
+
+    // Letras das peças na FEN, na ordem dos tipos (minúsculas = pretas)
+    private static final String FEN_PIECES = "pnbrqk";
+
+    // Direitos de roque que sobrevivem a um movimento que sai de/chega a cada casa
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        java.util.Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[E1] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) & 15;
+        CASTLING_MASK[H1] = ~WHITE_KINGSIDE & 15;
+        CASTLING_MASK[A1] = ~WHITE_QUEENSIDE & 15;
+        CASTLING_MASK[E8] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE) & 15;
+        CASTLING_MASK[H8] = ~BLACK_KINGSIDE & 15;
+        CASTLING_MASK[A8] = ~BLACK_QUEENSIDE & 15;
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] occupancy = new long[2];
+    private final int[] mailbox = new int[64];
+    private boolean whiteToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long zobristKey;
+    // Somas das tabelas peça-casa e fase do jogo, mantidas a cada peça colocada ou retirada
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    // Primeira camada da rede NNUE, quando alguma avaliação a pediu (null = sem rede)
+    private NnueAccumulator accumulator;
+
+    // Histórico para desfazer movimentos sem alocar: um registro por movimento feito
+    private final int[] historyCaptured = new int[MAX_HISTORY];
+    private final int[] historyState = new int[MAX_HISTORY]; // roque | en passant | meio-lances
+    private final long[] historyKey = new long[MAX_HISTORY];
+    private int historySize;
+
+    /**
+     * Cria um tabuleiro vazio com as brancas para jogar
+     */
+    public BitBoard() {
+        java.util.Arrays.fill(mailbox, NO_PIECE);
+        whiteToMove = true;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+    }
+
+    /**
+     * Converte um {@link Board} para bitboards. Os direitos de roque são deduzidos
+     * das flags hasMoved do rei e das torres nas casas iniciais.
+     */
+    public static BitBoard fromBoard(Board board, boolean whiteToMove) {
+        return fromBoard(board, whiteToMove, 0, 1);
+    }
+
+    public static BitBoard fromBoard(Board board, boolean whiteToMove, int halfmoveClock, int fullmoveNumber) {
+        BitBoard bb = new BitBoard();
+        // Percorre o índice de peças do Board em vez das 64 casas (mesma numeração de casas e peças)
+        for (int index = 0; index < 12; index++) {
+            for (int i = board.getPieceCount(index) - 1; i >= 0; i--) {
+                bb.putPiece(index, board.getPieceSquare(index, i));
+            }
+        }
+        bb.setWhiteToMove(whiteToMove);
+        bb.setCastlingRights(board.getCastlingRights());
+        Position ep = board.getEnPassantTarget();
+        bb.setEnPassantSquare((ep != null && ep.isValid()) ? square(ep.getRow(), ep.getCol()) : NO_SQUARE);
+        bb.halfmoveClock = halfmoveClock;
+        bb.fullmoveNumber = fullmoveNumber;
+        return bb;
+    }
+
+    /**
+     * Converte de volta para um {@link Board} com objetos {@link Piece}.
+     * Reis e torres recebem hasMoved = true quando o direito de roque correspondente não existe.
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                board.removePieceAt(new Position(row, col));
+            }
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = mailbox[sq];
+            if (piece == NO_PIECE) {
+                continue;
+            }
+            Position pos = new Position(row(sq), col(sq));
+            Piece p = createPiece(piece, pos);
+            p.setHasMoved(!isUnmoved(piece, sq));
+            board.setPieceAt(pos, p);
+        }
+        board.setEnPassantTarget(enPassantSquare == NO_SQUARE ? null : new Position(row(enPassantSquare), col(enPassantSquare)));
+        board.setWhiteToMove(whiteToMove);
+        return board;
+    }
+
+    /**
+     * Lê uma posição em notação FEN. Os campos de relógio são opcionais.
+     *
+     * @throws IllegalArgumentException se a FEN for inválida
+     */
+    public static BitBoard fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN incompleta: " + fen);
+        }
+        BitBoard bb = new BitBoard();
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN deve ter 8 fileiras: " + fen);
+        }
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char c : ranks[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                int type = FEN_PIECES.indexOf(Character.toLowerCase(c));
+                if (type < 0 || col > 7) {
+                    throw new IllegalArgumentException("Fileira inválida na FEN: " + ranks[row]);
+                }
+                bb.putPiece((Character.isUpperCase(c) ? WHITE : BLACK) * 6 + type, square(row, col++));
+            }
+            if (col != 8) {
+                throw new IllegalArgumentException("Fileira inválida na FEN: " + ranks[row]);
+            }
+        }
+        if (!fields[1].equals("w") && !fields[1].equals("b")) {
+            throw new IllegalArgumentException("Lado a jogar inválido na FEN: " + fields[1]);
+        }
+        bb.setWhiteToMove(fields[1].equals("w"));
+        int rights = 0;
+        for (char c : fields[2].toCharArray()) {
+            switch (c) {
+                case 'K': rights |= WHITE_KINGSIDE; break;
+                case 'Q': rights |= WHITE_QUEENSIDE; break;
+                case 'k': rights |= BLACK_KINGSIDE; break;
+                case 'q': rights |= BLACK_QUEENSIDE; break;
+                case '-': break;
+                default: throw new IllegalArgumentException("Roque inválido na FEN: " + fields[2]);
+            }
+        }
+        bb.setCastlingRights(rights);
+        bb.setEnPassantSquare(fields[3].equals("-") ? NO_SQUARE : parseSquare(fields[3]));
+        try {
+            bb.halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            bb.fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Relógio inválido na FEN: " + fen, e);
+        }
+        return bb;
+    }
+
+    /**
+     * Escreve a posição em notação FEN
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int piece = mailbox[square(row, col)];
+                if (piece == NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = FEN_PIECES.charAt(typeOf(piece));
+                fen.append(isWhitePiece(piece) ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+        fen.append(whiteToMove ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((castlingRights & BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+        fen.append(' ').append(enPassantSquare == NO_SQUARE ? "-" : PackedMove.squareName(enPassantSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    // Casa em notação algébrica ("e3") para o índice linha * 8 + coluna
+    private static int parseSquare(String name) {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h'
+                || name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Casa inválida: " + name);
+        }
+        return square('8' - name.charAt(1), name.charAt(0) - 'a');
+    }
+
+    /**
+     * Retorna uma cópia independente deste tabuleiro (sem o histórico de movimentos)
+     */
+    public BitBoard copy() {
+        BitBoard copy = new BitBoard();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Copia a posição de outro tabuleiro para este, sem alocar (o histórico é descartado)
+     */
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        whiteToMove = other.whiteToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        zobristKey = other.zobristKey;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        historySize = 0;
+        if (accumulator != null) {
+            accumulator.refresh(this);
+        }
+    }
+
+    /**
+     * Executa um movimento codificado por {@link PackedMove}, guardando no histórico
+     * interno o necessário para {@link #unmakeMove(int)}. Não aloca objetos.
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int flags = PackedMove.flags(move);
+        int piece = mailbox[from];
+        int color = colorOf(piece);
+
+        historyState[historySize] = castlingRights | ((enPassantSquare + 1) << 4) | (halfmoveClock << 11);
+        historyKey[historySize] = zobristKey;
+
+        int captured = NO_PIECE;
+        if (flags == PackedMove.EN_PASSANT) {
+            int capturedSquare = color == WHITE ? to + 8 : to - 8;
+            captured = mailbox[capturedSquare];
+            removePiece(capturedSquare);
+        } else if ((flags & PackedMove.CAPTURE) != 0) {
+            captured = mailbox[to];
+            removePiece(to);
+        }
+        historyCaptured[historySize++] = captured;
+
+        removePiece(from);
+        if ((flags & PackedMove.PROMOTION) != 0) {
+            putPiece(color * 6 + PackedMove.promotionType(move), to);
+        } else {
+            putPiece(piece, to);
+        }
+
+        if (flags == PackedMove.KING_CASTLE) {
+            int rook = mailbox[to + 1];
+            removePiece(to + 1);
+            putPiece(rook, to - 1);
+        } else if (flags == PackedMove.QUEEN_CASTLE) {
+            int rook = mailbox[to - 2];
+            removePiece(to - 2);
+            putPiece(rook, to + 1);
+        }
+
+        setEnPassantSquare(flags == PackedMove.DOUBLE_PUSH ? (from + to) >>> 1 : NO_SQUARE);
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        halfmoveClock = (typeOf(piece) == PAWN || captured != NO_PIECE) ? 0 : halfmoveClock + 1;
+        if (color == BLACK) {
+            fullmoveNumber++;
+        }
+        setWhiteToMove(!whiteToMove);
+    }
+
+    /**
+     * Desfaz o último movimento feito com {@link #makeMove(int)}
+     */
+    public void unmakeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int flags = PackedMove.flags(move);
+        historySize--;
+        whiteToMove = !whiteToMove;
+        int color = whiteToMove ? WHITE : BLACK;
+
+        int moved = (flags & PackedMove.PROMOTION) != 0 ? color * 6 + PAWN : mailbox[to];
+        clearSquare(to);
+        fillSquare(moved, from);
+
+        int captured = historyCaptured[historySize];
+        if (flags == PackedMove.EN_PASSANT) {
+            fillSquare(captured, color == WHITE ? to + 8 : to - 8);
+        } else if (captured != NO_PIECE) {
+            fillSquare(captured, to);
+        }
+
+        if (flags == PackedMove.KING_CASTLE) {
+            int rook = mailbox[to - 1];
+            clearSquare(to - 1);
+            fillSquare(rook, to + 1);
+        } else if (flags == PackedMove.QUEEN_CASTLE) {
+            int rook = mailbox[to + 1];
+            clearSquare(to + 1);
+            fillSquare(rook, to - 2);
+        }
+
+        int state = historyState[historySize];
+        castlingRights = state & 15;
+        enPassantSquare = ((state >>> 4) & 127) - 1;
+        halfmoveClock = state >>> 11;
+        if (color == BLACK) {
+            fullmoveNumber--;
+        }
+        zobristKey = historyKey[historySize];
+    }
+
+    /**
+     * Passa a vez sem mover nenhuma peça (lance nulo, usado na poda por lance nulo).
+     * Desfazer com {@link #unmakeNullMove()}.
+     */
+    public void makeNullMove() {
+        historyState[historySize] = castlingRights | ((enPassantSquare + 1) << 4) | (halfmoveClock << 11);
+        historyKey[historySize] = zobristKey;
+        historyCaptured[historySize++] = NO_PIECE;
+        setEnPassantSquare(NO_SQUARE);
+        halfmoveClock++;
+        setWhiteToMove(!whiteToMove);
+    }
+
+    /**
+     * Desfaz o último {@link #makeNullMove()}
+     */
+    public void unmakeNullMove() {
+        historySize--;
+        whiteToMove = !whiteToMove;
+        int state = historyState[historySize];
+        enPassantSquare = ((state >>> 4) & 127) - 1;
+        halfmoveClock = state >>> 11;
+        zobristKey = historyKey[historySize];
+    }
+
+    /**
+     * Número de movimentos feitos e ainda não desfeitos
+     */
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Coloca uma peça (índice cor * 6 + tipo) numa casa vazia
+     */
+    public void putPiece(int piece, int sq) {
+        long bit = 1L << sq;
+        pieces[piece] |= bit;
+        occupancy[colorOf(piece)] |= bit;
+        mailbox[sq] = piece;
+        zobristKey ^= Zobrist.PIECES[piece][sq];
+        addScores(piece, sq);
+    }
+
+    /**
+     * Remove a peça de uma casa ocupada
+     */
+    public void removePiece(int sq) {
+        int piece = mailbox[sq];
+        if (piece == NO_PIECE) {
+            return;
+        }
+        long bit = 1L << sq;
+        pieces[piece] &= ~bit;
+        occupancy[colorOf(piece)] &= ~bit;
+        mailbox[sq] = NO_PIECE;
+        zobristKey ^= Zobrist.PIECES[piece][sq];
+        subtractScores(piece, sq);
+    }
+
+    // Coloca/retira os bits de uma peça sem mexer na chave (usado ao desfazer, que restaura a chave)
+    private void fillSquare(int piece, int sq) {
+        long bit = 1L << sq;
+        pieces[piece] |= bit;
+        occupancy[colorOf(piece)] |= bit;
+        mailbox[sq] = piece;
+        addScores(piece, sq);
+    }
+
+    private void clearSquare(int sq) {
+        int piece = mailbox[sq];
+        long bit = 1L << sq;
+        pieces[piece] &= ~bit;
+        occupancy[colorOf(piece)] &= ~bit;
+        mailbox[sq] = NO_PIECE;
+        subtractScores(piece, sq);
+    }
+
+    private void addScores(int piece, int sq) {
+        middlegameScore += PieceSquareTables.MIDDLEGAME[piece][sq];
+        endgameScore += PieceSquareTables.ENDGAME[piece][sq];
+        phase += PieceSquareTables.PHASE_WEIGHT[typeOf(piece)];
+        if (accumulator != null) {
+            accumulator.add(piece, sq);
+        }
+    }
+
+    private void subtractScores(int piece, int sq) {
+        middlegameScore -= PieceSquareTables.MIDDLEGAME[piece][sq];
+        endgameScore -= PieceSquareTables.ENDGAME[piece][sq];
+        phase -= PieceSquareTables.PHASE_WEIGHT[typeOf(piece)];
+        if (accumulator != null) {
+            accumulator.remove(piece, sq);
+        }
+    }
+
+    /**
+     * Acumulador NNUE mantido por este tabuleiro, ou null
+     */
+    public NnueAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * Passa a manter o acumulador a cada peça colocada ou retirada (null deixa de manter).
+     * O acumulador é recalculado a partir da posição atual.
+     */
+    public void setAccumulator(NnueAccumulator accumulator) {
+        this.accumulator = accumulator;
+        if (accumulator != null) {
+            accumulator.refresh(this);
+        }
+    }
+
+    /**
+     * Soma das tabelas peça-casa de meio-jogo (material incluído), do ponto de vista das brancas
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * Soma das tabelas peça-casa de final (material incluído), do ponto de vista das brancas
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Fase do jogo: 24 com todas as peças menores, torres e damas, 0 só com reis e peões
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    public long getPieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long getPieces(boolean white, int type) {
+        return pieces[(white ? WHITE : BLACK) * 6 + type];
+    }
+
+    public long getOccupancy(boolean white) {
+        return occupancy[white ? WHITE : BLACK];
+    }
+
+    public long getAllOccupancy() {
+        return occupancy[WHITE] | occupancy[BLACK];
+    }
+
+    /**
+     * Retorna o índice da peça na casa, ou {@link #NO_PIECE}
+     */
+    public int pieceAt(int sq) {
+        return mailbox[sq];
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.whiteToMove != whiteToMove) {
+            zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        }
+        this.whiteToMove = whiteToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        zobristKey ^= Zobrist.CASTLING[this.castlingRights] ^ Zobrist.CASTLING[castlingRights];
+        this.castlingRights = castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare) ^ Zobrist.enPassantKey(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    /**
+     * Chave de Zobrist da posição, igual à de {@link Board#getZobristKey()} para a mesma posição
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Casa do rei da cor informada, ou {@link #NO_SQUARE}
+     */
+    public int kingSquare(boolean white) {
+        long king = getPieces(white, KING);
+        return king == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Verifica se a casa é atacada por alguma peça da cor informada
+     */
+    public boolean isSquareAttacked(int sq, boolean byWhite) {
+        int attacker = byWhite ? WHITE : BLACK;
+        int base = attacker * 6;
+        // Um peão atacante fica nas casas que um peão da outra cor atacaria a partir do alvo
+        if ((AttackTables.PAWN_ATTACKS[attacker ^ 1][sq] & pieces[base + PAWN]) != 0) {
+            return true;
+        }
+        if ((AttackTables.KNIGHT_ATTACKS[sq] & pieces[base + KNIGHT]) != 0) {
+            return true;
+        }
+        if ((AttackTables.KING_ATTACKS[sq] & pieces[base + KING]) != 0) {
+            return true;
+        }
+        long occupied = getAllOccupancy();
+        long rooksQueens = pieces[base + ROOK] | pieces[base + QUEEN];
+        if (rooksQueens != 0 && (AttackTables.rookAttacks(sq, occupied) & rooksQueens) != 0) {
+            return true;
+        }
+        long bishopsQueens = pieces[base + BISHOP] | pieces[base + QUEEN];
+        return bishopsQueens != 0 && (AttackTables.bishopAttacks(sq, occupied) & bishopsQueens) != 0;
+    }
+
+    /**
+     * Peças da cor informada que atacam a casa, considerando a ocupação dada
+     * (permite, por exemplo, tirar o rei do tabuleiro para testar as casas para onde ele foge)
+     */
+    public long attackersTo(int sq, boolean byWhite, long occupied) {
+        int attacker = byWhite ? WHITE : BLACK;
+        int base = attacker * 6;
+        return (AttackTables.PAWN_ATTACKS[attacker ^ 1][sq] & pieces[base + PAWN])
+                | (AttackTables.KNIGHT_ATTACKS[sq] & pieces[base + KNIGHT])
+                | (AttackTables.KING_ATTACKS[sq] & pieces[base + KING])
+                | (AttackTables.rookAttacks(sq, occupied) & (pieces[base + ROOK] | pieces[base + QUEEN]))
+                | (AttackTables.bishopAttacks(sq, occupied) & (pieces[base + BISHOP] | pieces[base + QUEEN]));
+    }
+
+    /**
+     * Verifica se o rei da cor informada está em xeque
+     */
+    public boolean isInCheck(boolean white) {
+        int king = kingSquare(white);
+        return king != NO_SQUARE && isSquareAttacked(king, !white);
+    }
+
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    public static int row(int sq) {
+        return sq >>> 3;
+    }
+
+    public static int col(int sq) {
+        return sq & 7;
+    }
+
+    public static int colorOf(int piece) {
+        return piece < 6 ? WHITE : BLACK;
+    }
+
+    public static int typeOf(int piece) {
+        return piece % 6;
+    }
+
+    public static boolean isWhitePiece(int piece) {
+        return piece < 6;
+    }
+
+    /**
+     * Converte uma peça do modelo para o índice cor * 6 + tipo
+     */
+    public static int pieceIndex(Piece piece) {
+        int base = piece.isWhite() ? 0 : 6;
+        if (piece instanceof Pawn) return base + PAWN;
+        if (piece instanceof Knight) return base + KNIGHT;
+        if (piece instanceof Bishop) return base + BISHOP;
+        if (piece instanceof Rook) return base + ROOK;
+        if (piece instanceof Queen) return base + QUEEN;
+        if (piece instanceof King) return base + KING;
+        return NO_PIECE;
+    }
+
+    /**
+     * Cria a peça do modelo correspondente ao índice
+     */
+    public static Piece createPiece(int piece, Position position) {
+        boolean white = isWhitePiece(piece);
+        switch (typeOf(piece)) {
+            case PAWN: return new Pawn(white, position);
+            case KNIGHT: return new Knight(white, position);
+            case BISHOP: return new Bishop(white, position);
+            case ROOK: return new Rook(white, position);
+            case QUEEN: return new Queen(white, position);
+            case KING: return new King(white, position);
+            default: return null;
+        }
+    }
+
+    // Uma peça só é considerada "não movida" se ainda sustentar algum direito de roque
+    private boolean isUnmoved(int piece, int sq) {
+        switch (piece) {
+            case WHITE * 6 + KING: return sq == E1 && (castlingRights & (WHITE_KINGSIDE | WHITE_QUEENSIDE)) != 0;
+            case BLACK * 6 + KING: return sq == E8 && (castlingRights & (BLACK_KINGSIDE | BLACK_QUEENSIDE)) != 0;
+            case WHITE * 6 + ROOK: return (sq == H1 && (castlingRights & WHITE_KINGSIDE) != 0)
+                    || (sq == A1 && (castlingRights & WHITE_QUEENSIDE) != 0);
+            case BLACK * 6 + ROOK: return (sq == H8 && (castlingRights & BLACK_KINGSIDE) != 0)
+                    || (sq == A8 && (castlingRights & BLACK_QUEENSIDE) != 0);
+            case WHITE * 6 + PAWN: return row(sq) == 6;
+            case BLACK * 6 + PAWN: return row(sq) == 1;
+            default: return true;
+        }
+    }
+}
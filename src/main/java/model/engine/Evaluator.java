@@ -0,0 +1,12 @@
+package model.engine;
+
+/**
+ * Função de avaliação estática que pode ser trocada nos motores
+ * ({@link model.ChessAI}, {@link model.IASuprema}, {@link model.IANivel8}).
+ */
+public interface Evaluator {
+    /**
+     * Avaliação da posição do ponto de vista das brancas, em centipeões (positivo = bom para as brancas)
+     */
+    int evaluate(BitBoard board);
+}
@@ -0,0 +1,311 @@
+package model.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Aprofundamento iterativo comum às IAs: busca as profundidades 1, 2, 3... sobre {@link AlphaBetaSearch}
+ * até o {@link SearchTimer} parar e devolve o melhor movimento da iteração completa mais profunda.
+ * Cada IA só fornece os núcleos de busca (com a sua avaliação) e escolhe os {@link SearchFeatures}.
+ *
+ * A cada iteração, os movimentos da raiz são buscados com janela de aspiração em torno da
+ * pontuação anterior e divididos entre as threads de um {@link ForkJoinPool} ({@link RootSplitter})
+ * quando o paralelismo da raiz passa de 1. O melhor movimento abre a iteração seguinte.
+ *
+ * Com mais de uma thread (Lazy SMP), as auxiliares buscam a mesma posição em profundidades
+ * alternadas, cada uma com o seu núcleo, e todas compartilham a tabela de transposição; vale
+ * a iteração mais profunda concluída por qualquer uma delas.
+ */
+public final class IterativeDeepeningSearch {
+    private final String threadName;
+    private final Supplier<AlphaBetaSearch> workerFactory;
+    private final Object searchLock = new Object(); // uma busca por vez nesta instância
+
+    private volatile SearchFeatures features = SearchFeatures.all();
+    private volatile SearchListener listener;
+    private int hashSizeMb = TranspositionTable.DEFAULT_SIZE_MB;
+    private TranspositionTable table; // alocada na primeira busca, compartilhada pelas threads
+    private int threads = 1;
+    private Worker[] workers;
+    private SearchThreadPool helpers; // threads auxiliares do Lazy SMP, criadas sob demanda
+    private int rootParallelism = 1;
+    private ForkJoinPool rootPool; // divide os movimentos da raiz, criado sob demanda
+    // Núcleo de cada thread do divisor da raiz, reaproveitado entre buscas
+    private final ThreadLocal<AlphaBetaSearch> rootWorkers;
+
+    // Busca atual: relógio principal e iteração mais profunda concluída por qualquer thread
+    private volatile SearchTimer currentTimer;
+    private int completedDepth;
+    private int completedMove;
+    private int completedScore;
+
+    /**
+     * @param threadName prefixo do nome das threads auxiliares
+     * @param workerFactory cria o núcleo de busca de cada thread
+     */
+    public IterativeDeepeningSearch(String threadName, Supplier<AlphaBetaSearch> workerFactory) {
+        this.threadName = threadName;
+        this.workerFactory = workerFactory;
+        this.rootWorkers = ThreadLocal.withInitial(workerFactory);
+        this.workers = new Worker[] {new Worker(0)};
+    }
+
+    public void setFeatures(SearchFeatures features) {
+        this.features = features;
+    }
+
+    public SearchFeatures getFeatures() {
+        return features;
+    }
+
+    /**
+     * Recebe cada iteração concluída (null desliga)
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Define o orçamento de memória da tabela de transposição (em MB)
+     */
+    public void setHashSizeMb(int sizeMb) {
+        this.hashSizeMb = sizeMb;
+        if (table != null) {
+            table.resize(sizeMb);
+        }
+    }
+
+    /**
+     * Tabela de transposição usada pela busca (null antes da primeira busca)
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Apaga a tabela de transposição, por exemplo quando a avaliação muda
+     */
+    public void clearTranspositionTable() {
+        if (table != null) {
+            table.clear();
+        }
+    }
+
+    /**
+     * Define quantas threads buscam a mesma posição (Lazy SMP)
+     */
+    public void setThreads(int threads) {
+        threads = Math.max(1, threads);
+        if (threads == this.threads) {
+            return;
+        }
+        if (helpers != null) {
+            helpers.shutdown();
+            helpers = null;
+        }
+        this.threads = threads;
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Define quantas threads dividem os movimentos da raiz da busca principal (1 = sequencial)
+     */
+    public void setRootParallelism(int threads) {
+        threads = Math.max(1, threads);
+        if (threads == rootParallelism) {
+            return;
+        }
+        if (rootPool != null) {
+            rootPool.shutdownNow();
+            rootPool = null;
+        }
+        rootParallelism = threads;
+    }
+
+    public int getRootParallelism() {
+        return rootParallelism;
+    }
+
+    /**
+     * Encerra as threads auxiliares e as do divisor da raiz (são recriadas na próxima busca)
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdown();
+            helpers = null;
+        }
+        if (rootPool != null) {
+            rootPool.shutdownNow();
+            rootPool = null;
+        }
+    }
+
+    /**
+     * Busca a posição até o relógio parar. A posição não é alterada; buscas simultâneas nesta
+     * instância esperam a vez.
+     */
+    public SearchResult search(BitBoard position, SearchTimer timer) {
+        synchronized (searchLock) {
+            int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+            if (MoveGenerator.generateLegal(position, rootMoves) == 0) {
+                return SearchResult.noLegalMoves(position);
+            }
+            if (table == null) {
+                table = new TranspositionTable(hashSizeMb);
+            }
+            if (threads > 1 && helpers == null) {
+                helpers = new SearchThreadPool(threadName, threads - 1);
+            }
+            if (rootParallelism > 1 && rootPool == null) {
+                rootPool = new ForkJoinPool(rootParallelism);
+            }
+            table.newSearch();
+            table.resetStatistics();
+            SearchFeatures searchFeatures = features;
+            synchronized (this) {
+                completedDepth = 0;
+                currentTimer = timer;
+            }
+
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 1; i < threads; i++) {
+                Worker helper = workers[i];
+                SearchTimer helperTimer = timer.createHelper();
+                tasks.add(helpers.submit(() -> helper.deepen(position, helperTimer, searchFeatures)));
+            }
+            int firstMove = workers[0].deepen(position, timer, searchFeatures);
+            timer.stop();
+            SearchThreadPool.awaitAll(tasks);
+
+            synchronized (this) {
+                // Garante um movimento mesmo que nenhuma iteração termine antes do prazo
+                if (completedDepth == 0) {
+                    return new SearchResult(firstMove, 0, 0, new int[] {firstMove},
+                            timer.getTotalNodes(), timer.elapsedMillis());
+                }
+                return new SearchResult(completedMove, completedScore, completedDepth,
+                        table.principalVariation(position, completedMove, completedDepth),
+                        timer.getTotalNodes(), timer.elapsedMillis());
+            }
+        }
+    }
+
+    /**
+     * Interrompe a busca em andamento, de qualquer thread; ela devolve o melhor movimento da
+     * última iteração completa
+     */
+    public void stop() {
+        SearchTimer timer = currentTimer;
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Movimento guardado na tabela de transposição para a posição (o que a última busca espera),
+     * ou {@link PackedMove#NONE}
+     */
+    public int predictMove(BitBoard position) {
+        TranspositionTable current = table;
+        return current == null ? PackedMove.NONE : current.probeMove(position);
+    }
+
+    /**
+     * Profundidade da iteração completa mais profunda da última busca
+     */
+    public synchronized int getLastDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Nós visitados na última busca, somando todas as threads
+     */
+    public long getLastNodes() {
+        SearchTimer timer = currentTimer;
+        return timer == null ? 0 : timer.getTotalNodes();
+    }
+
+    // Guarda o resultado se for a iteração mais profunda concluída até agora
+    private synchronized void completeIteration(int depth, int move, int score, BitBoard root) {
+        SearchTimer timer = currentTimer;
+        if (depth >= timer.getLimits().getMaxDepth()) {
+            timer.stop(); // qualquer thread que chegue à profundidade máxima encerra a busca
+        }
+        if (depth <= completedDepth) {
+            return;
+        }
+        completedDepth = depth;
+        completedMove = move;
+        completedScore = score;
+        SearchListener current = listener;
+        if (current != null) {
+            current.iterationCompleted(depth, score, timer.getTotalNodes(), timer.elapsedMillis(),
+                    table.principalVariation(root, move, depth));
+        }
+    }
+
+    /**
+     * Estado de uma thread: núcleo de busca e movimentos da raiz. A thread 0 é a principal;
+     * as auxiliares começam em profundidades alternadas para não percorrer a árvore em sincronia.
+     */
+    private final class Worker {
+        private final int index;
+        private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+        private final AlphaBetaSearch search = workerFactory.get();
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Aprofundamento iterativo sobre a cópia da posição desta thread
+         *
+         * @return o primeiro movimento da raiz depois da ordenação, para quando nenhuma iteração termina
+         */
+        int deepen(BitBoard position, SearchTimer timer, SearchFeatures searchFeatures) {
+            search.start(position, table, timer, searchFeatures);
+            int total = MoveGenerator.generateLegal(search.getBoard(), rootMoves);
+            search.orderRootMoves(rootMoves, total);
+            int firstMove = rootMoves[0];
+            int firstDepth = 1 + (index & 1);
+            int previousScore = 0; // centro da janela de aspiração
+            // Só a busca principal divide a raiz; as auxiliares do Lazy SMP seguem sequenciais
+            ForkJoinPool pool = index == 0 ? rootPool : null;
+            for (int depth = firstDepth; timer.canStartIteration(depth); depth++) {
+                int iterationDepth = depth;
+                int window = searchFeatures.isAspiration() && depth > firstDepth ? AlphaBetaSearch.ASPIRATION_WINDOW : 0;
+                int[] scores = RootSplitter.searchRootWithAspiration(pool, total, previousScore, window, timer,
+                        (i, alpha, beta) -> search.searchRootMove(rootMoves[i], iterationDepth, alpha, beta, i == 0),
+                        (i, alpha, beta) -> searchInCopy(rootMoves[i], iterationDepth, alpha, beta, searchFeatures));
+                int best = RootSplitter.bestIndex(scores);
+                if (timer.isStopped() || best < 0) {
+                    break; // iteração incompleta: fica o resultado da anterior
+                }
+                int bestMove = rootMoves[best];
+                previousScore = scores[best];
+                completeIteration(depth, bestMove, previousScore, search.getBoard());
+                // O melhor movimento abre a próxima iteração
+                System.arraycopy(rootMoves, 0, rootMoves, 1, best);
+                rootMoves[0] = bestMove;
+            }
+            return firstMove;
+        }
+
+        // Mesma busca numa thread do divisor da raiz, com tabuleiro e estado próprios
+        private int searchInCopy(int move, int depth, int alpha, int beta, SearchFeatures searchFeatures) {
+            AlphaBetaSearch worker = rootWorkers.get();
+            worker.attach(search.getBoard(), table, search.getTimer().createHelper(), searchFeatures);
+            return worker.searchRootMove(move, depth, alpha, beta, false);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package model.engine;
+
+import static model.engine.BitBoard.*;
+
+/**
+ * Gerador de movimentos sobre {@link BitBoard}.
+ *
+ * Os movimentos são gravados como {@link PackedMove} num {@code int[]} fornecido pelo
+ * chamador (tipicamente um buffer por ply alocado uma única vez), então a geração não
+ * produz lixo. {@link #generate} é pseudo-legal como os geradores das peças: movimentos
+ * que deixam o próprio rei em xeque não são filtrados (o roque já exige que o rei não
+ * passe por casas atacadas). {@link #generateLegal} calcula xeques e cravadas a partir
+ * da casa do rei e devolve apenas movimentos legais, sem simular cada um.
+ */
+public final class MoveGenerator {
+    /** Tamanho suficiente para o buffer de qualquer posição */
+    public static final int MAX_MOVES = 256;
+
+    private static final long ROW_0 = 0xFFL;
+    private static final long ROW_7 = 0xFFL << 56;
+    // Linhas em que um peão chega após o primeiro avanço simples a partir da casa inicial
+    private static final long WHITE_DOUBLE_PUSH_ROW = 0xFFL << 40;
+    private static final long BLACK_DOUBLE_PUSH_ROW = 0xFFL << 16;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+
+    private MoveGenerator() {}
+
+    /**
+     * Gera todos os movimentos do lado a jogar. Retorna quantos foram gravados em {@code moves}.
+     */
+    public static int generate(BitBoard board, int[] moves) {
+        return generate(board, moves, false);
+    }
+
+    /**
+     * Gera apenas capturas (inclusive en passant e promoções com captura)
+     */
+    public static int generateCaptures(BitBoard board, int[] moves) {
+        return generate(board, moves, true);
+    }
+
+    /**
+     * Gera apenas os movimentos legais do lado a jogar. Nunca inclui a captura do rei adversário.
+     * Em posições sem rei do lado a jogar, equivale a {@link #generate}.
+     */
+    public static int generateLegal(BitBoard board, int[] moves) {
+        boolean white = board.isWhiteToMove();
+        int us = white ? WHITE : BLACK;
+        int kingSquare = board.kingSquare(white);
+        if (kingSquare == NO_SQUARE) {
+            return generate(board, moves, false);
+        }
+        long own = board.getOccupancy(white);
+        long enemy = board.getOccupancy(!white);
+        long occupied = own | enemy;
+        long targets = ~own & ~board.getPieces(!white, KING);
+        int count = 0;
+
+        // Rei: a casa de destino não pode ser atacada nem mesmo pela peça que o ataca em raio
+        long withoutKing = occupied ^ (1L << kingSquare);
+        long kingTargets = AttackTables.KING_ATTACKS[kingSquare] & targets;
+        while (kingTargets != 0) {
+            int to = Long.numberOfTrailingZeros(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if (board.attackersTo(to, !white, withoutKing) == 0) {
+                moves[count++] = PackedMove.encode(kingSquare, to,
+                        ((1L << to) & enemy) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET);
+            }
+        }
+
+        long checkers = board.attackersTo(kingSquare, !white, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return count; // xeque duplo: só o rei se move
+        }
+        // Sem xeque qualquer destino serve; em xeque simples, capturar a peça ou bloquear o raio
+        long evasions = -1L;
+        if (checkers != 0) {
+            evasions = checkers | AttackTables.BETWEEN[kingSquare][Long.numberOfTrailingZeros(checkers)];
+        } else {
+            count = generateCastling(board, moves, count, white, occupied);
+        }
+        targets &= evasions;
+        long pinned = pinnedPieces(board, kingSquare, white, own, occupied);
+
+        count = generateLegalPawnMoves(board, moves, count, white, kingSquare, enemy, occupied, evasions, pinned);
+
+        long pieces = own & ~board.getPieces(us * 6 + PAWN) & ~board.getPieces(us * 6 + KING);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long attacks;
+            switch (typeOf(board.pieceAt(from))) {
+                case KNIGHT: attacks = AttackTables.KNIGHT_ATTACKS[from]; break;
+                case BISHOP: attacks = AttackTables.bishopAttacks(from, occupied); break;
+                case ROOK: attacks = AttackTables.rookAttacks(from, occupied); break;
+                default: attacks = AttackTables.queenAttacks(from, occupied); break;
+            }
+            if (((1L << from) & pinned) != 0) {
+                // Peça cravada só anda sobre a linha entre o rei e a peça que crava
+                attacks &= AttackTables.LINE[kingSquare][from];
+            }
+            count = addMoves(moves, count, from, attacks & targets, enemy);
+        }
+        return count;
+    }
+
+    // Peças nossas que são a única entre o rei e uma torre, bispo ou rainha adversária alinhada
+    private static long pinnedPieces(BitBoard board, int kingSquare, boolean white, long own, long occupied) {
+        long rooksQueens = board.getPieces(!white, ROOK) | board.getPieces(!white, QUEEN);
+        long bishopsQueens = board.getPieces(!white, BISHOP) | board.getPieces(!white, QUEEN);
+        long snipers = (AttackTables.rookAttacks(kingSquare, 0L) & rooksQueens)
+                | (AttackTables.bishopAttacks(kingSquare, 0L) & bishopsQueens);
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long between = AttackTables.BETWEEN[kingSquare][sniper] & occupied;
+            if (Long.bitCount(between) == 1) {
+                pinned |= between & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static int generateLegalPawnMoves(BitBoard board, int[] moves, int count, boolean white, int kingSquare,
+                                              long enemy, long occupied, long evasions, long pinned) {
+        int us = white ? WHITE : BLACK;
+        long pawns = board.getPieces(us * 6 + PAWN);
+        long promotionRow = white ? ROW_0 : ROW_7;
+        long doublePushRow = white ? WHITE_DOUBLE_PUSH_ROW : BLACK_DOUBLE_PUSH_ROW;
+        long captureTargets = enemy & ~board.getPieces(!white, KING) & evasions;
+        int forward = white ? -8 : 8;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = ((1L << from) & pinned) != 0 ? AttackTables.LINE[kingSquare][from] : -1L;
+
+            int single = from + forward;
+            if (((1L << single) & occupied) == 0) {
+                if (((1L << single) & evasions & allowed) != 0) {
+                    if (((1L << single) & promotionRow) != 0) {
+                        count = addPromotions(moves, count, from, single, PackedMove.PROMOTION);
+                    } else {
+                        moves[count++] = PackedMove.encode(from, single, PackedMove.QUIET);
+                    }
+                }
+                int twice = single + forward;
+                if (((1L << single) & doublePushRow) != 0 && ((1L << twice) & occupied) == 0
+                        && ((1L << twice) & evasions & allowed) != 0) {
+                    moves[count++] = PackedMove.encode(from, twice, PackedMove.DOUBLE_PUSH);
+                }
+            }
+
+            long captures = AttackTables.PAWN_ATTACKS[us][from] & captureTargets & allowed;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (((1L << to) & promotionRow) != 0) {
+                    count = addPromotions(moves, count, from, to, PackedMove.PROMOTION_CAPTURE);
+                } else {
+                    moves[count++] = PackedMove.encode(from, to, PackedMove.CAPTURE);
+                }
+            }
+        }
+
+        int ep = board.getEnPassantSquare();
+        if (ep != NO_SQUARE) {
+            long capturers = AttackTables.PAWN_ATTACKS[us ^ 1][ep] & board.getPieces(us * 6 + PAWN);
+            while (capturers != 0) {
+                int from = Long.numberOfTrailingZeros(capturers);
+                capturers &= capturers - 1;
+                // Dois peões saem da mesma fileira de uma vez (cravada horizontal): confere fazendo o movimento
+                int move = PackedMove.encode(from, ep, PackedMove.EN_PASSANT);
+                board.makeMove(move);
+                boolean legal = !board.isInCheck(white);
+                board.unmakeMove(move);
+                if (legal) {
+                    moves[count++] = move;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int generate(BitBoard board, int[] moves, boolean capturesOnly) {
+        boolean white = board.isWhiteToMove();
+        int us = white ? WHITE : BLACK;
+        long own = board.getOccupancy(white);
+        long enemy = board.getOccupancy(!white);
+        long occupied = own | enemy;
+        long targets = capturesOnly ? enemy : ~own;
+        int count = 0;
+
+        count = generatePawnMoves(board, moves, count, white, enemy, occupied, capturesOnly);
+
+        long knights = board.getPieces(us * 6 + KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addMoves(moves, count, from, AttackTables.KNIGHT_ATTACKS[from] & targets, enemy);
+        }
+        long bishops = board.getPieces(us * 6 + BISHOP);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            count = addMoves(moves, count, from, AttackTables.bishopAttacks(from, occupied) & targets, enemy);
+        }
+        long rooks = board.getPieces(us * 6 + ROOK);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            count = addMoves(moves, count, from, AttackTables.rookAttacks(from, occupied) & targets, enemy);
+        }
+        long queens = board.getPieces(us * 6 + QUEEN);
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            count = addMoves(moves, count, from, AttackTables.queenAttacks(from, occupied) & targets, enemy);
+        }
+        long king = board.getPieces(us * 6 + KING);
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            count = addMoves(moves, count, from, AttackTables.KING_ATTACKS[from] & targets, enemy);
+            if (!capturesOnly) {
+                count = generateCastling(board, moves, count, white, occupied);
+            }
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(BitBoard board, int[] moves, int count, boolean white,
+                                         long enemy, long occupied, boolean capturesOnly) {
+        int us = white ? WHITE : BLACK;
+        long pawns = board.getPieces(us * 6 + PAWN);
+        long promotionRow = white ? ROW_0 : ROW_7;
+        int forward = white ? -8 : 8;
+
+        if (!capturesOnly) {
+            long empty = ~occupied;
+            long singlePushes = (white ? pawns >>> 8 : pawns << 8) & empty;
+            long doublePushes = (white ? (singlePushes & WHITE_DOUBLE_PUSH_ROW) >>> 8
+                    : (singlePushes & BLACK_DOUBLE_PUSH_ROW) << 8) & empty;
+            long pushes = singlePushes;
+            while (pushes != 0) {
+                int to = Long.numberOfTrailingZeros(pushes);
+                pushes &= pushes - 1;
+                int from = to - forward;
+                if (((1L << to) & promotionRow) != 0) {
+                    count = addPromotions(moves, count, from, to, PackedMove.PROMOTION);
+                } else {
+                    moves[count++] = PackedMove.encode(from, to, PackedMove.QUIET);
+                }
+            }
+            while (doublePushes != 0) {
+                int to = Long.numberOfTrailingZeros(doublePushes);
+                doublePushes &= doublePushes - 1;
+                moves[count++] = PackedMove.encode(to - 2 * forward, to, PackedMove.DOUBLE_PUSH);
+            }
+        }
+
+        long attackers = pawns;
+        while (attackers != 0) {
+            int from = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            long captures = AttackTables.PAWN_ATTACKS[us][from] & enemy;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (((1L << to) & promotionRow) != 0) {
+                    count = addPromotions(moves, count, from, to, PackedMove.PROMOTION_CAPTURE);
+                } else {
+                    moves[count++] = PackedMove.encode(from, to, PackedMove.CAPTURE);
+                }
+            }
+        }
+
+        int ep = board.getEnPassantSquare();
+        if (ep != NO_SQUARE) {
+            // Peões nossos que atacam a casa de en passant
+            long capturers = AttackTables.PAWN_ATTACKS[us ^ 1][ep] & pawns;
+            while (capturers != 0) {
+                int from = Long.numberOfTrailingZeros(capturers);
+                capturers &= capturers - 1;
+                moves[count++] = PackedMove.encode(from, ep, PackedMove.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static int generateCastling(BitBoard board, int[] moves, int count, boolean white, long occupied) {
+        int rights = board.getCastlingRights();
+        int kingSquare = white ? E1 : E8;
+        int rook = (white ? WHITE : BLACK) * 6 + ROOK;
+        int kingside = white ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = white ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0 || board.isSquareAttacked(kingSquare, !white)) {
+            return count;
+        }
+        if ((rights & kingside) != 0 && board.pieceAt(kingSquare + 3) == rook
+                && (occupied & ((1L << (kingSquare + 1)) | (1L << (kingSquare + 2)))) == 0
+                && !board.isSquareAttacked(kingSquare + 1, !white)
+                && !board.isSquareAttacked(kingSquare + 2, !white)) {
+            moves[count++] = PackedMove.encode(kingSquare, kingSquare + 2, PackedMove.KING_CASTLE);
+        }
+        if ((rights & queenside) != 0 && board.pieceAt(kingSquare - 4) == rook
+                && (occupied & ((1L << (kingSquare - 1)) | (1L << (kingSquare - 2)) | (1L << (kingSquare - 3)))) == 0
+                && !board.isSquareAttacked(kingSquare - 1, !white)
+                && !board.isSquareAttacked(kingSquare - 2, !white)) {
+            moves[count++] = PackedMove.encode(kingSquare, kingSquare - 2, PackedMove.QUEEN_CASTLE);
+        }
+        return count;
+    }
+
+    private static int addMoves(int[] moves, int count, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = ((1L << to) & enemy) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET;
+            moves[count++] = PackedMove.encode(from, to, flags);
+        }
+        return count;
+    }
+
+    // A rainha vem primeiro: é a promoção escolhida quando só origem e destino são conhecidos
+    private static int addPromotions(int[] moves, int count, int from, int to, int flags) {
+        moves[count++] = PackedMove.encodePromotion(from, to, flags, QUEEN);
+        moves[count++] = PackedMove.encodePromotion(from, to, flags, KNIGHT);
+        moves[count++] = PackedMove.encodePromotion(from, to, flags, ROOK);
+        moves[count++] = PackedMove.encodePromotion(from, to, flags, BISHOP);
+        return count;
+    }
+
+    /**
+     * Conta os movimentos pseudo-legais de uma cor sem gravá-los (roque e en passant não
+     * entram). Serve como medida de mobilidade para a avaliação.
+     */
+    public static int countMoves(BitBoard board, boolean white) {
+        int us = white ? WHITE : BLACK;
+        long own = board.getOccupancy(white);
+        long enemy = board.getOccupancy(!white);
+        long occupied = own | enemy;
+        int count = 0;
+
+        long pawns = board.getPieces(us * 6 + PAWN);
+        long empty = ~occupied;
+        long singlePushes = (white ? pawns >>> 8 : pawns << 8) & empty;
+        long doublePushes = (white ? (singlePushes & WHITE_DOUBLE_PUSH_ROW) >>> 8
+                : (singlePushes & BLACK_DOUBLE_PUSH_ROW) << 8) & empty;
+        count += Long.bitCount(singlePushes) + Long.bitCount(doublePushes);
+        // Capturas de todos os peões de uma vez, deslocando o bitboard para cada diagonal
+        long left = pawns & ~FILE_A;
+        long right = pawns & ~FILE_H;
+        count += white ? Long.bitCount((left >>> 9) & enemy) + Long.bitCount((right >>> 7) & enemy)
+                : Long.bitCount((left << 7) & enemy) + Long.bitCount((right << 9) & enemy);
+        long knights = board.getPieces(us * 6 + KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count += Long.bitCount(AttackTables.KNIGHT_ATTACKS[from] & ~own);
+        }
+        long bishops = board.getPieces(us * 6 + BISHOP) | board.getPieces(us * 6 + QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            count += Long.bitCount(AttackTables.bishopAttacks(from, occupied) & ~own);
+        }
+        long rooks = board.getPieces(us * 6 + ROOK) | board.getPieces(us * 6 + QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            count += Long.bitCount(AttackTables.rookAttacks(from, occupied) & ~own);
+        }
+        long king = board.getPieces(us * 6 + KING);
+        if (king != 0) {
+            count += Long.bitCount(AttackTables.KING_ATTACKS[Long.numberOfTrailingZeros(king)] & ~own);
+        }
+        return count;
+    }
+}
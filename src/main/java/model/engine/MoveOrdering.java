@@ -0,0 +1,198 @@
+package model.engine;
+
+import static model.engine.BitBoard.*;
+
+/**
+ * Ordenação de movimentos compartilhada pelas IAs. A ordem de tentativa em cada nó é:
+ * <ol>
+ *   <li>o movimento guardado na tabela de transposição;</li>
+ *   <li>capturas e promoções, em ordem MVV-LVA;</li>
+ *   <li>os dois movimentos "assassinos" do ply (lances quietos que já causaram corte beta
+ *       em posições irmãs);</li>
+ *   <li>o contra-lance: o lance quieto que melhor respondeu ao último movimento do adversário;</li>
+ *   <li>os demais lances quietos pela tabela de histórico {@code [cor][origem][destino]}.</li>
+ * </ol>
+ * As tabelas aprendem durante a busca por {@link #recordCutoff}. Cada thread de busca usa a
+ * sua instância, então nada aqui é sincronizado.
+ */
+public final class MoveOrdering {
+    /** Plies com movimentos assassinos guardados */
+    public static final int MAX_PLY = SearchLimits.MAX_DEPTH + 1;
+
+    private static final int HASH_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int COUNTER_SCORE = 1 << 26;
+    // Além deste valor (em módulo) o histórico inteiro é dividido por dois, ficando sempre abaixo do contra-lance
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64];
+    private final int[][] counterMoves = new int[64][64];
+
+    /**
+     * Prepara uma nova busca: esquece os assassinos e reduz o histórico, que continua
+     * útil mas não deve pesar tanto quanto o que a nova busca aprender
+     */
+    public void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = PackedMove.NONE;
+            plyKillers[1] = PackedMove.NONE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Apaga tudo o que foi aprendido
+     */
+    public void clear() {
+        newSearch();
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                java.util.Arrays.fill(from, 0);
+            }
+        }
+        for (int[] from : counterMoves) {
+            java.util.Arrays.fill(from, PackedMove.NONE);
+        }
+    }
+
+    /**
+     * Pontua os movimentos gerados num nó para {@link #pickNext}. {@code previousMove} é o último
+     * movimento do adversário ({@link PackedMove#NONE} na raiz).
+     */
+    public void score(BitBoard board, int[] moves, int total, int[] scores,
+                      int hashMove, int ply, int previousMove) {
+        int side = board.isWhiteToMove() ? WHITE : BLACK;
+        int killer0 = ply < MAX_PLY ? killers[ply][0] : PackedMove.NONE;
+        int killer1 = ply < MAX_PLY ? killers[ply][1] : PackedMove.NONE;
+        int counter = previousMove == PackedMove.NONE ? PackedMove.NONE
+                : counterMoves[PackedMove.from(previousMove)][PackedMove.to(previousMove)];
+        for (int i = 0; i < total; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                scores[i] = HASH_SCORE;
+            } else if (!isQuiet(move)) {
+                scores[i] = CAPTURE_SCORE + mvvLva(board, move);
+            } else if (move == killer0) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == counter) {
+                scores[i] = COUNTER_SCORE;
+            } else {
+                scores[i] = history[side][PackedMove.from(move)][PackedMove.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Registra o corte beta causado por {@code moves[index]}. Se for um lance quieto, vira
+     * assassino do ply e contra-lance de {@code previousMove}, ganha histórico proporcional
+     * ao quadrado da profundidade, e os lances quietos tentados antes dele perdem o mesmo tanto.
+     */
+    public void recordCutoff(int[] moves, int index, boolean white, int ply, int depth, int previousMove) {
+        int move = moves[index];
+        if (!isQuiet(move)) {
+            return;
+        }
+        if (ply < MAX_PLY && killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (previousMove != PackedMove.NONE) {
+            counterMoves[PackedMove.from(previousMove)][PackedMove.to(previousMove)] = move;
+        }
+        int[][] sideHistory = history[white ? WHITE : BLACK];
+        int bonus = depth * depth;
+        boolean overflow = false;
+        for (int i = 0; i < index; i++) {
+            if (isQuiet(moves[i])) {
+                overflow |= (sideHistory[PackedMove.from(moves[i])][PackedMove.to(moves[i])] -= bonus) <= -HISTORY_LIMIT;
+            }
+        }
+        overflow |= (sideHistory[PackedMove.from(move)][PackedMove.to(move)] += bonus) >= HISTORY_LIMIT;
+        if (overflow) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * Pontuação MVV-LVA de uma captura: maior para vítimas mais valiosas e, entre vítimas
+     * iguais, para atacantes menos valiosos. Promoções contam como captura de uma dama a mais.
+     */
+    public static int mvvLva(BitBoard board, int move) {
+        int victim = capturedType(board, move);
+        int attacker = typeOf(board.pieceAt(PackedMove.from(move)));
+        int score = victim * 8 + (KING - attacker);
+        if (PackedMove.isPromotion(move)) {
+            score += PackedMove.promotionType(move) * 8;
+        }
+        return score;
+    }
+
+    /**
+     * Tipo da peça capturada (peão no en passant; peão também quando não há captura)
+     */
+    public static int capturedType(BitBoard board, int move) {
+        if (PackedMove.flags(move) == PackedMove.EN_PASSANT) {
+            return PAWN;
+        }
+        int victim = board.pieceAt(PackedMove.to(move));
+        return victim == NO_PIECE ? PAWN : typeOf(victim);
+    }
+
+    /**
+     * Seleção parcial: traz para a posição {@code i} o movimento de maior pontuação entre
+     * os ainda não tentados e o retorna. Como os cortes costumam vir cedo, sai mais barato
+     * que ordenar a lista inteira.
+     */
+    public static int pickNext(int[] moves, int[] scores, int i, int total) {
+        int best = i;
+        for (int j = i + 1; j < total; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[i];
+        moves[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    /**
+     * Ordena a lista inteira por pontuação decrescente (inserção estável: empates mantêm a
+     * ordem de geração). Usado na raiz, onde a lista é percorrida toda a cada iteração.
+     */
+    public static void sort(int[] moves, int[] scores, int total) {
+        for (int i = 1; i < total; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    private static boolean isQuiet(int move) {
+        return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+    }
+
+    private void ageHistory() {
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package model.engine;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static model.engine.BitBoard.*;
+
+/**
+ * Rede neural atualizável de forma eficiente (NNUE), no formato {@code 768 -> 2 x H -> 1}.
+ *
+ * A entrada tem 768 atributos (cor relativa x tipo x casa), vistos de duas perspectivas: a das
+ * brancas e a das pretas, esta com o tabuleiro espelhado. A primeira camada de cada perspectiva é
+ * o acumulador ({@link NnueAccumulator}), atualizado somando e subtraindo colunas de pesos a cada
+ * peça colocada ou retirada. A saída aplica ReLU limitada ({@code [0, QA]}) aos dois acumuladores,
+ * o de quem joga primeiro, e os combina com a camada de saída.
+ *
+ * Os pesos são inteiros de 16 bits quantizados: a primeira camada em escala {@link #QA}, a de saída
+ * em {@link #QB}. Arquivo de pesos (little-endian):
+ * <pre>
+ *   int32  magic "NNUE" (0x4555_4E4E)
+ *   int32  versão (1)
+ *   int32  H, neurônios por perspectiva
+ *   int16  pesos da primeira camada [768][H]  (atributo = cor relativa * 384 + tipo * 64 + casa)
+ *   int16  viés da primeira camada [H]
+ *   int16  pesos de saída [2H]  (primeiro os de quem joga, depois os do adversário)
+ *   int32  viés de saída
+ * </pre>
+ * A casa está na numeração de {@link BitBoard}, do ponto de vista da perspectiva (espelhada para as pretas).
+ */
+public final class Nnue {
+    /** Atributos de entrada: 2 cores relativas x 6 tipos x 64 casas */
+    public static final int INPUTS = 768;
+    /** Escala da primeira camada (e teto da ReLU limitada) */
+    public static final int QA = 255;
+    /** Escala da camada de saída */
+    public static final int QB = 64;
+    /** Conversão da saída da rede para centipeões */
+    public static final int SCALE = 400;
+
+    private static final int MAGIC = 0x4555_4E4E;
+    private static final int VERSION = 1;
+    private static final int DEFAULT_HIDDEN = 16;
+
+    private final int hidden;
+    final short[] featureWeights; // [INPUTS * hidden]
+    final short[] featureBias;    // [hidden]
+    private final short[] outputWeights; // [2 * hidden]
+    private final int outputBias;
+
+    private Nnue(int hidden, short[] featureWeights, short[] featureBias, short[] outputWeights, int outputBias) {
+        this.hidden = hidden;
+        this.featureWeights = featureWeights;
+        this.featureBias = featureBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Lê uma rede no formato descrito acima
+     *
+     * @throws IOException se o arquivo estiver truncado ou não for uma rede NNUE
+     */
+    public static Nnue load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (readInt(in) != MAGIC) {
+            throw new IOException("arquivo não é uma rede NNUE");
+        }
+        int version = readInt(in);
+        if (version != VERSION) {
+            throw new IOException("versão de rede NNUE não suportada: " + version);
+        }
+        int hidden = readInt(in);
+        if (hidden <= 0 || hidden > 4096) {
+            throw new IOException("tamanho de camada inválido: " + hidden);
+        }
+        short[] featureWeights = readShorts(in, INPUTS * hidden);
+        short[] featureBias = readShorts(in, hidden);
+        short[] outputWeights = readShorts(in, 2 * hidden);
+        int outputBias = readInt(in);
+        return new Nnue(hidden, featureWeights, featureBias, outputWeights, outputBias);
+    }
+
+    public static Nnue load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Rede padrão montada a partir das tabelas peça-casa (média de meio-jogo e final), para que a
+     * avaliação faça sentido sem um arquivo treinado. Em cada perspectiva, um neurônio soma o
+     * material das próprias peças (em unidades de 16 centipeões) e outro o valor posicional
+     * (unidades de 4, centrado em 128); os demais ficam zerados até que uma rede treinada os use.
+     */
+    public static Nnue fromPieceSquareTables() {
+        int hidden = DEFAULT_HIDDEN;
+        short[] featureWeights = new short[INPUTS * hidden];
+        short[] featureBias = new short[hidden];
+        short[] outputWeights = new short[2 * hidden];
+        for (int type = PAWN; type <= KING; type++) {
+            int total = 0;
+            for (int sq = 0; sq < 64; sq++) {
+                total += averageValue(type, sq);
+            }
+            // O material é a média do tipo no tabuleiro; o resto vai para o neurônio posicional
+            int material = Math.round(total / 64f / 16f);
+            for (int sq = 0; sq < 64; sq++) {
+                int feature = type * 64 + sq; // peças próprias; as do adversário estão no outro acumulador
+                featureWeights[feature * hidden] = (short) material;
+                featureWeights[feature * hidden + 1] = (short) Math.round((averageValue(type, sq) - material * 16) / 4f);
+            }
+        }
+        featureBias[1] = 128;
+        // Uma unidade do neurônio vale 16 (ou 4) centipeões depois de SCALE / (QA * QB)
+        short materialWeight = (short) Math.round(16f * QA * QB / SCALE);
+        short positionalWeight = (short) Math.round(4f * QA * QB / SCALE);
+        outputWeights[0] = materialWeight;
+        outputWeights[1] = positionalWeight;
+        outputWeights[hidden] = (short) -materialWeight;
+        outputWeights[hidden + 1] = (short) -positionalWeight;
+        return new Nnue(hidden, featureWeights, featureBias, outputWeights, 0);
+    }
+
+    // Valor da peça branca na casa, com material, pela média das tabelas de meio-jogo e final
+    private static int averageValue(int type, int sq) {
+        int piece = WHITE * 6 + type;
+        return Math.round((PieceSquareTables.MIDDLEGAME[piece][sq] + PieceSquareTables.ENDGAME[piece][sq]) / 2f);
+    }
+
+    /**
+     * Neurônios por perspectiva
+     */
+    public int getHiddenSize() {
+        return hidden;
+    }
+
+    /**
+     * Atributo de entrada de uma peça numa casa, visto pela perspectiva de uma cor
+     */
+    static int feature(int perspective, int piece, int sq) {
+        int relativeColor = colorOf(piece) == perspective ? 0 : 1;
+        int relativeSquare = perspective == WHITE ? sq : sq ^ 56;
+        return relativeColor * 384 + typeOf(piece) * 64 + relativeSquare;
+    }
+
+    /**
+     * Avaliação em centipeões do ponto de vista de quem joga
+     */
+    int evaluate(NnueAccumulator accumulator, boolean whiteToMove) {
+        short[] us = whiteToMove ? accumulator.white : accumulator.black;
+        short[] them = whiteToMove ? accumulator.black : accumulator.white;
+        long sum = outputBias;
+        for (int i = 0; i < hidden; i++) {
+            sum += clippedRelu(us[i]) * outputWeights[i] + clippedRelu(them[i]) * outputWeights[hidden + i];
+        }
+        return (int) (sum * SCALE / (QA * QB));
+    }
+
+    private static int clippedRelu(short value) {
+        return Math.max(0, Math.min(QA, value));
+    }
+
+    private static int readInt(DataInputStream in) throws IOException {
+        return Integer.reverseBytes(in.readInt());
+    }
+
+    private static short[] readShorts(DataInputStream in, int count) throws IOException {
+        short[] values = new short[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Short.reverseBytes(in.readShort());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+package model.engine;
+
+import static model.engine.BitBoard.*;
+
+/**
+ * Primeira camada de uma {@link Nnue} para a posição de um {@link BitBoard}, nas duas perspectivas.
+ *
+ * O tabuleiro chama {@link #add} e {@link #remove} a cada peça colocada ou retirada, inclusive ao
+ * desfazer movimentos; como a soma é inteira, desfazer restaura exatamente o valor anterior.
+ * Um movimento mexe em duas a quatro colunas de pesos por perspectiva, em vez de recalcular
+ * a camada inteira a partir dos 768 atributos.
+ */
+public final class NnueAccumulator {
+    private final Nnue network;
+    final short[] white;
+    final short[] black;
+
+    public NnueAccumulator(Nnue network) {
+        this.network = network;
+        this.white = new short[network.getHiddenSize()];
+        this.black = new short[network.getHiddenSize()];
+    }
+
+    public Nnue getNetwork() {
+        return network;
+    }
+
+    /**
+     * Recalcula os dois acumuladores a partir das peças do tabuleiro
+     */
+    public void refresh(BitBoard board) {
+        System.arraycopy(network.featureBias, 0, white, 0, white.length);
+        System.arraycopy(network.featureBias, 0, black, 0, black.length);
+        for (int piece = 0; piece < 12; piece++) {
+            long bits = board.getPieces(piece);
+            while (bits != 0) {
+                add(piece, Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    void add(int piece, int sq) {
+        addColumn(white, Nnue.feature(WHITE, piece, sq));
+        addColumn(black, Nnue.feature(BLACK, piece, sq));
+    }
+
+    void remove(int piece, int sq) {
+        subtractColumn(white, Nnue.feature(WHITE, piece, sq));
+        subtractColumn(black, Nnue.feature(BLACK, piece, sq));
+    }
+
+    private void addColumn(short[] accumulator, int feature) {
+        short[] weights = network.featureWeights;
+        int offset = feature * accumulator.length;
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    private void subtractColumn(short[] accumulator, int feature) {
+        short[] weights = network.featureWeights;
+        int offset = feature * accumulator.length;
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package model.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Avaliação por uma rede {@link Nnue}. O acumulador fica preso ao {@link BitBoard} e é atualizado
+ * pelo próprio tabuleiro a cada movimento feito ou desfeito, então avaliar uma folha custa só a
+ * camada de saída ({@code 2 x H} multiplicações), barato o bastante para qualquer nó da busca.
+ *
+ * Sem rede indicada, usa {@code models/nnue.bin} dos recursos, se existir, ou a rede padrão
+ * montada das tabelas peça-casa ({@link Nnue#fromPieceSquareTables()}).
+ */
+public class NnueEvaluator implements Evaluator {
+    private static final String DEFAULT_RESOURCE = "models/nnue.bin";
+
+    private final Nnue network;
+
+    public NnueEvaluator() {
+        this(defaultNetwork());
+    }
+
+    public NnueEvaluator(Nnue network) {
+        this.network = network;
+    }
+
+    public Nnue getNetwork() {
+        return network;
+    }
+
+    @Override
+    public int evaluate(BitBoard board) {
+        NnueAccumulator accumulator = board.getAccumulator();
+        if (accumulator == null || accumulator.getNetwork() != network) {
+            // Primeira avaliação neste tabuleiro: daqui em diante ele mantém o acumulador
+            accumulator = new NnueAccumulator(network);
+            board.setAccumulator(accumulator);
+        }
+        int score = network.evaluate(accumulator, board.isWhiteToMove());
+        return board.isWhiteToMove() ? score : -score;
+    }
+
+    private static Nnue defaultNetwork() {
+        try (InputStream in = NnueEvaluator.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in != null) {
+                return Nnue.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Rede NNUE inválida em " + DEFAULT_RESOURCE + ", usando a padrão: " + e.getMessage());
+        }
+        return Nnue.fromPieceSquareTables();
+    }
+}
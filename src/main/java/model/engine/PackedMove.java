@@ -0,0 +1,126 @@
+package model.engine;
+
+import model.Board;
+import model.Move;
+import model.Position;
+import model.pieces.Piece;
+
+/**
+ * Movimento codificado num {@code int}, usado pelos motores para não alocar objetos na busca.
+ *
+ * <pre>
+ *  bits  0-5   casa de origem
+ *  bits  6-11  casa de destino
+ *  bits 12-15  flags (QUIET, DOUBLE_PUSH, roques, CAPTURE, EN_PASSANT, PROMOTION...)
+ *  bits 16-18  tipo da peça de promoção (KNIGHT..QUEEN de {@link BitBoard})
+ * </pre>
+ * O valor 0 (a8a8) nunca é um movimento válido e serve como "nenhum movimento".
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    // Flags: bit 2 = captura, bit 3 = promoção
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private PackedMove() {}
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int encodePromotion(int from, int to, int flags, int promotionType) {
+        return from | (to << 6) | (flags << 12) | (promotionType << 16);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    public static int promotionType(int move) {
+        return (move >>> 16) & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    /**
+     * Converte para um {@link Move} do modelo, com as peças do tabuleiro informado
+     */
+    public static Move toMove(int move, Board board) {
+        Position from = new Position(BitBoard.row(from(move)), BitBoard.col(from(move)));
+        Position to = new Position(BitBoard.row(to(move)), BitBoard.col(to(move)));
+        Piece piece = board.getPieceAt(from);
+        Move result = new Move(from, to, piece);
+        if (flags(move) == EN_PASSANT) {
+            result.setEnPassant(true);
+            result.setPieceCaptured(board.getPieceAt(from.getRow(), to.getCol()));
+        } else if (isCapture(move)) {
+            result.setPieceCaptured(board.getPieceAt(to));
+        }
+        if (isCastling(move)) {
+            result.setCastling(true);
+        }
+        if (isPromotion(move) && piece != null) {
+            int promoted = (piece.isWhite() ? BitBoard.WHITE : BitBoard.BLACK) * 6 + promotionType(move);
+            result.setPromotionPiece(BitBoard.createPiece(promoted, to));
+        }
+        return result;
+    }
+
+    /**
+     * Codifica um {@link Move} do modelo (pela origem e destino) procurando-o entre os movimentos gerados
+     */
+    public static int fromMove(Move move, int[] moves, int count) {
+        int from = BitBoard.square(move.getFrom().getRow(), move.getFrom().getCol());
+        int to = BitBoard.square(move.getTo().getRow(), move.getTo().getCol());
+        for (int i = 0; i < count; i++) {
+            if (from(moves[i]) == from && to(moves[i]) == to) {
+                return moves[i];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Notação de coordenadas (ex.: e2e4, e7e8q)
+     */
+    public static String toUci(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String text = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            text += "nbrq".charAt(promotionType(move) - BitBoard.KNIGHT);
+        }
+        return text;
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + BitBoard.col(sq)) + (char) ('8' - BitBoard.row(sq));
+    }
+}
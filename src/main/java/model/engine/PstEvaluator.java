@@ -0,0 +1,15 @@
+package model.engine;
+
+/**
+ * Avaliação por tabelas peça-casa com interpolação pela fase do jogo.
+ *
+ * As somas de meio-jogo e final são mantidas pelo próprio {@link BitBoard} a cada peça
+ * colocada ou retirada, então a avaliação de uma folha é O(1): só a interpolação
+ * {@code (mg * fase + eg * (24 - fase)) / 24}.
+ */
+public class PstEvaluator implements Evaluator {
+    @Override
+    public int evaluate(BitBoard board) {
+        return PieceSquareTables.taper(board.getMiddlegameScore(), board.getEndgameScore(), board.getPhase());
+    }
+}
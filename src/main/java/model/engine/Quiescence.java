@@ -0,0 +1,169 @@
+package model.engine;
+
+import static model.engine.BitBoard.*;
+
+/**
+ * Busca de quiescência compartilhada pelas IAs: nas folhas da busca principal, continua só com
+ * capturas até a posição ficar "quieta", para que a avaliação não seja feita no meio de uma troca.
+ *
+ * As capturas vêm de {@link MoveGenerator#generateCaptures} e são tentadas em ordem MVV-LVA
+ * ({@link MoveOrdering#mvvLva}). São descartadas as capturas que perdem material na troca
+ * estática ({@link #see}) e, pela poda delta, as que nem somando a peça capturada e
+ * {@link #DELTA_MARGIN} alcançam alfa, e as que deixam o próprio rei em xeque.
+ * Promoções só entram como dama.
+ *
+ * Cada thread de busca usa a sua instância: os buffers por ply são alocados uma única vez.
+ */
+public final class Quiescence {
+    /**
+     * Avaliação estática do ponto de vista do lado a jogar. A janela alfa-beta é repassada
+     * para quem quiser fazer avaliação preguiçosa.
+     */
+    @FunctionalInterface
+    public interface StaticEvaluation {
+        int evaluate(BitBoard board, int alpha, int beta);
+    }
+
+    /** Profundidade máxima de capturas em sequência */
+    public static final int MAX_PLY = 64;
+    /** Folga da poda delta, em centipeões, para ganhos posicionais que a captura pode trazer */
+    public static final int DELTA_MARGIN = 200;
+
+    // Valor das peças para a troca estática e a poda delta (peão, cavalo, bispo, torre, dama, rei)
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 20000};
+
+    private final StaticEvaluation evaluation;
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    // Ganhos da troca estática, um por captura na casa (no máximo 32 peças)
+    private final int[] gains = new int[33];
+
+    public Quiescence(StaticEvaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Busca as capturas da posição com a janela dada (fail-hard), do ponto de vista do lado a jogar.
+     * O tabuleiro volta ao estado original ao final.
+     */
+    public int search(BitBoard board, SearchTimer timer, int alpha, int beta) {
+        return search(board, timer, alpha, beta, 0);
+    }
+
+    private int search(BitBoard board, SearchTimer timer, int alpha, int beta, int ply) {
+        int standPat = evaluation.evaluate(board, alpha, beta);
+        if (standPat >= beta) {
+            return beta;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+        if (ply >= MAX_PLY) {
+            return alpha;
+        }
+        boolean white = board.isWhiteToMove();
+        // Poda delta da posição: nem a melhor captura possível alcança alfa
+        long promoting = board.getPieces(white, PAWN) & (white ? 0xFFL << 8 : 0xFFL << 48);
+        int bestGain = VALUES[QUEEN] + (promoting != 0 ? VALUES[QUEEN] - VALUES[PAWN] : 0);
+        if (standPat + bestGain + DELTA_MARGIN <= alpha) {
+            return alpha;
+        }
+
+        int[] captures = moves[ply];
+        int[] order = scores[ply];
+        int total = MoveGenerator.generateCaptures(board, captures);
+        for (int i = 0; i < total; i++) {
+            order[i] = MoveOrdering.mvvLva(board, captures[i]);
+        }
+        for (int i = 0; i < total; i++) {
+            int move = MoveOrdering.pickNext(captures, order, i, total);
+            if (PackedMove.isPromotion(move) && PackedMove.promotionType(move) != QUEEN) {
+                continue;
+            }
+            if (timer.countNode()) {
+                break;
+            }
+            int gain = capturedValue(board, move);
+            if (PackedMove.isPromotion(move)) {
+                gain += VALUES[QUEEN] - VALUES[PAWN];
+            } else if (standPat + gain + DELTA_MARGIN <= alpha) {
+                continue; // poda delta do movimento
+            }
+            // Quem captura com peça de valor até o da vítima nunca sai perdendo: dispensa a troca estática
+            if (VALUES[typeOf(board.pieceAt(PackedMove.from(move)))] > gain && see(board, move) < 0) {
+                continue; // perde material na troca
+            }
+            board.makeMove(move);
+            if (board.isInCheck(white)) {
+                board.unmakeMove(move); // ilegal: deixa o rei em xeque
+                continue;
+            }
+            int score = -search(board, timer, -beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (score >= beta) {
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    // Valor da peça capturada; 0 numa promoção sem captura, que só ganha a diferença da promoção
+    private static int capturedValue(BitBoard board, int move) {
+        return PackedMove.isCapture(move) ? VALUES[MoveOrdering.capturedType(board, move)] : 0;
+    }
+
+    /**
+     * Troca estática: saldo de material, em centipeões, da sequência de recapturas na casa
+     * de destino, com cada lado capturando sempre com a peça menos valiosa e podendo parar
+     * quando continuar não compensa. Considera peças em raio-X atrás das que já capturaram.
+     */
+    public int see(BitBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        boolean side = isWhitePiece(board.pieceAt(from));
+        int onSquare = typeOf(board.pieceAt(from));
+        long occupied = board.getAllOccupancy() ^ (1L << from);
+        int depth = 0;
+        gains[0] = capturedValue(board, move);
+        if (PackedMove.flags(move) == PackedMove.EN_PASSANT) {
+            occupied ^= 1L << (side ? to + 8 : to - 8);
+        }
+        if (PackedMove.isPromotion(move)) {
+            onSquare = PackedMove.promotionType(move);
+            gains[0] += VALUES[onSquare] - VALUES[PAWN];
+        }
+        side = !side;
+        while (true) {
+            long attackers = board.attackersTo(to, side, occupied) & occupied;
+            if (attackers == 0) {
+                break;
+            }
+            int type = PAWN;
+            long bit = 0;
+            for (; type <= KING; type++) {
+                long candidates = attackers & board.getPieces(side, type);
+                if (candidates != 0) {
+                    bit = candidates & -candidates;
+                    break;
+                }
+            }
+            // O rei só recaptura se a casa não estiver mais defendida
+            if (type == KING && (board.attackersTo(to, !side, occupied) & occupied) != 0) {
+                break;
+            }
+            depth++;
+            gains[depth] = VALUES[onSquare] - gains[depth - 1];
+            occupied ^= bit;
+            onSquare = type;
+            side = !side;
+        }
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+}
@@ -0,0 +1,138 @@
+package model.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Divide os movimentos da raiz entre as threads de um {@link ForkJoinPool}.
+ *
+ * O primeiro movimento (o melhor da iteração anterior) é buscado na thread chamadora para
+ * estabelecer um limite; os demais são buscados em paralelo, cada um lendo o alfa
+ * compartilhado num {@link AtomicInteger} ao começar, de modo que subárvores posteriores
+ * ainda aproveitam cortes. As pontuações estão sempre na perspectiva de quem joga na raiz.
+ */
+public final class RootSplitter {
+    /** Marca de movimento que não superou o alfa com que foi buscado (só é um limite superior) */
+    public static final int NOT_BETTER = Integer.MIN_VALUE;
+
+    /**
+     * Busca de um movimento da raiz dado o alfa atual
+     */
+    @FunctionalInterface
+    public interface MoveSearch {
+        int search(int moveIndex, int alpha);
+    }
+
+    /**
+     * Busca de um movimento da raiz dada a janela atual
+     */
+    @FunctionalInterface
+    public interface WindowedMoveSearch {
+        int search(int moveIndex, int alpha, int beta);
+    }
+
+    private RootSplitter() {}
+
+    /**
+     * Busca a raiz com janela de aspiração de meia largura {@code window} em torno de
+     * {@code previousScore} (a pontuação da iteração anterior). Se a melhor pontuação cair
+     * fora da janela, rebusca com aquele lado aberto. Com {@code window} 0 a janela é cheia.
+     */
+    public static int[] searchRootWithAspiration(ForkJoinPool pool, int moveCount, int previousScore, int window,
+                                                 SearchTimer timer, WindowedMoveSearch main,
+                                                 WindowedMoveSearch parallel) {
+        int alpha = window > 0 ? previousScore - window : -AlphaBetaSearch.INFINITY;
+        int beta = window > 0 ? previousScore + window : AlphaBetaSearch.INFINITY;
+        while (true) {
+            int rootBeta = beta;
+            int[] scores = searchRoot(pool, moveCount, alpha, rootBeta, timer,
+                    (i, a) -> main.search(i, a, rootBeta), (i, a) -> parallel.search(i, a, rootBeta));
+            int best = bestIndex(scores);
+            if (timer.isStopped() || best < 0) {
+                return scores;
+            }
+            if (scores[best] <= alpha && alpha > -AlphaBetaSearch.INFINITY) {
+                alpha = -AlphaBetaSearch.INFINITY; // falhou baixo
+            } else if (scores[best] >= beta && beta < AlphaBetaSearch.INFINITY) {
+                beta = AlphaBetaSearch.INFINITY; // falhou alto
+            } else {
+                return scores;
+            }
+        }
+    }
+
+    /**
+     * Busca todos os movimentos da raiz. {@code main} roda na thread chamadora (e sozinha,
+     * quando {@code pool} é null); {@code parallel} roda nas threads do pool e deve usar
+     * estado próprio (cópia do tabuleiro, pilha de desfazer, relógio auxiliar).
+     *
+     * @return a pontuação de cada movimento, ou {@link #NOT_BETTER} quando o movimento não
+     *         superou o alfa com que foi buscado. O chamador deve conferir se a busca foi abortada.
+     */
+    public static int[] searchRoot(ForkJoinPool pool, int moveCount, int initialAlpha, SearchTimer timer,
+                                   MoveSearch main, MoveSearch parallel) {
+        return searchRoot(pool, moveCount, initialAlpha, Integer.MAX_VALUE, timer, main, parallel);
+    }
+
+    /**
+     * Como {@link #searchRoot(ForkJoinPool, int, int, SearchTimer, MoveSearch, MoveSearch)}, mas
+     * com janela de aspiração: assim que um movimento alcança {@code beta}, os que ainda não
+     * começaram são pulados (o chamador deve rebuscar com a janela aberta).
+     */
+    public static int[] searchRoot(ForkJoinPool pool, int moveCount, int initialAlpha, int beta, SearchTimer timer,
+                                   MoveSearch main, MoveSearch parallel) {
+        int[] scores = new int[moveCount];
+        java.util.Arrays.fill(scores, NOT_BETTER);
+        if (moveCount == 0) {
+            return scores;
+        }
+        int first = main.search(0, initialAlpha);
+        scores[0] = first;
+        AtomicInteger alpha = new AtomicInteger(Math.max(initialAlpha, first));
+        if (pool == null) {
+            for (int i = 1; i < moveCount && !timer.isStopped() && alpha.get() < beta; i++) {
+                scores[i] = searchBounded(main, i, alpha);
+            }
+            return scores;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(moveCount - 1);
+        for (int i = 1; i < moveCount; i++) {
+            int index = i;
+            tasks.add(pool.submit(() -> {
+                if (!timer.isStopped() && alpha.get() < beta) {
+                    scores[index] = searchBounded(parallel, index, alpha);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return scores;
+    }
+
+    private static int searchBounded(MoveSearch search, int index, AtomicInteger alpha) {
+        int bound = alpha.get();
+        int score = search.search(index, bound);
+        if (score <= bound) {
+            return NOT_BETTER;
+        }
+        alpha.accumulateAndGet(score, Math::max);
+        return score;
+    }
+
+    /**
+     * Índice do melhor movimento, ou -1 se nenhum tiver pontuação
+     */
+    public static int bestIndex(int[] scores) {
+        int best = -1;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] != NOT_BETTER && (best < 0 || scores[i] > scores[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
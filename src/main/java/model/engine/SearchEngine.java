@@ -0,0 +1,42 @@
+package model.engine;
+
+/**
+ * Motor de busca independente do jogo e da interface: recebe uma posição completa (lado a jogar,
+ * roques, en passant) e os limites, e devolve um {@link SearchResult}. Não guarda estado de
+ * partida entre as chamadas, só a tabela de transposição, que vale para qualquer posição; uma
+ * instância pode atender várias partidas, alternando entre elas.
+ *
+ * Buscas simultâneas na mesma instância são feitas uma de cada vez; para buscar em paralelo
+ * use uma instância por partida ou as threads do próprio motor.
+ */
+public interface SearchEngine {
+    /**
+     * Busca a posição dentro dos limites. A posição não é alterada.
+     */
+    default SearchResult search(BitBoard position, SearchLimits limits) {
+        return search(position, new SearchTimer(limits));
+    }
+
+    /**
+     * Busca com um relógio criado por quem chama, que pode interrompê-la ({@link SearchTimer#stop()})
+     * de outra thread ou ponderar ({@link SearchTimer#pondering}).
+     */
+    SearchResult search(BitBoard position, SearchTimer timer);
+
+    /**
+     * Troca a função de avaliação (null = a própria do motor)
+     */
+    void setEvaluator(Evaluator evaluator);
+
+    Evaluator getEvaluator();
+
+    /**
+     * Recebe cada iteração concluída das próximas buscas (null desliga)
+     */
+    void setSearchListener(SearchListener listener);
+
+    /**
+     * Nome do motor, para registros e protocolos
+     */
+    String getName();
+}
@@ -0,0 +1,99 @@
+package model.engine;
+
+/**
+ * Técnicas de busca que podem ser ligadas e desligadas, para medir o efeito de cada uma
+ * em nós visitados e força de jogo (veja {@code model.SelfPlay}).
+ *
+ * Instâncias são imutáveis: os métodos {@code with...} devolvem uma cópia alterada.
+ */
+public final class SearchFeatures {
+    private final boolean pvs;
+    private final boolean nullMove;
+    private final boolean lateMoveReductions;
+    private final boolean futility;
+    private final boolean aspiration;
+
+    private SearchFeatures(boolean pvs, boolean nullMove, boolean lateMoveReductions,
+                           boolean futility, boolean aspiration) {
+        this.pvs = pvs;
+        this.nullMove = nullMove;
+        this.lateMoveReductions = lateMoveReductions;
+        this.futility = futility;
+        this.aspiration = aspiration;
+    }
+
+    /**
+     * Todas as técnicas ligadas (padrão das IAs)
+     */
+    public static SearchFeatures all() {
+        return new SearchFeatures(true, true, true, true, true);
+    }
+
+    /**
+     * Alfa-beta simples, com janela cheia em todos os filhos
+     */
+    public static SearchFeatures none() {
+        return new SearchFeatures(false, false, false, false, false);
+    }
+
+    /**
+     * Busca de variante principal: filhos depois do primeiro com janela nula, rebuscados se superarem alfa
+     */
+    public SearchFeatures withPvs(boolean pvs) {
+        return new SearchFeatures(pvs, nullMove, lateMoveReductions, futility, aspiration);
+    }
+
+    /**
+     * Poda por lance nulo, desligada em xeque e quando só restam rei e peões (risco de zugzwang)
+     */
+    public SearchFeatures withNullMove(boolean nullMove) {
+        return new SearchFeatures(pvs, nullMove, lateMoveReductions, futility, aspiration);
+    }
+
+    /**
+     * Reduções de lances tardios: lances quietos no fim da lista são buscados com menos profundidade
+     */
+    public SearchFeatures withLateMoveReductions(boolean lateMoveReductions) {
+        return new SearchFeatures(pvs, nullMove, lateMoveReductions, futility, aspiration);
+    }
+
+    /**
+     * Poda de futilidade: perto das folhas, lances quietos que não alcançam alfa nem com folga são pulados
+     */
+    public SearchFeatures withFutility(boolean futility) {
+        return new SearchFeatures(pvs, nullMove, lateMoveReductions, futility, aspiration);
+    }
+
+    /**
+     * Janelas de aspiração na raiz, centradas na pontuação da iteração anterior
+     */
+    public SearchFeatures withAspiration(boolean aspiration) {
+        return new SearchFeatures(pvs, nullMove, lateMoveReductions, futility, aspiration);
+    }
+
+    public boolean isPvs() {
+        return pvs;
+    }
+
+    public boolean isNullMove() {
+        return nullMove;
+    }
+
+    public boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public boolean isFutility() {
+        return futility;
+    }
+
+    public boolean isAspiration() {
+        return aspiration;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchFeatures[pvs=" + pvs + ", lanceNulo=" + nullMove + ", lmr=" + lateMoveReductions
+                + ", futilidade=" + futility + ", aspiração=" + aspiration + "]";
+    }
+}
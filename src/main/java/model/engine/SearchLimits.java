@@ -0,0 +1,95 @@
+package model.engine;
+
+/**
+ * Limites de uma busca com aprofundamento iterativo.
+ *
+ * O orçamento de tempo é o tempo que a busca deve usar por jogada; o prazo final é um
+ * instante absoluto (em {@link System#currentTimeMillis()}) em que um movimento precisa
+ * estar pronto, por exemplo o limite dado pelo servidor de jogo. Zero significa "sem limite".
+ * Instâncias são imutáveis: os métodos {@code with...} devolvem uma cópia alterada.
+ */
+public final class SearchLimits {
+    /** Maior profundidade que os motores aceitam (tamanho das pilhas de desfazer) */
+    public static final int MAX_DEPTH = 64;
+
+    private final int maxDepth;
+    private final long moveTimeMs;
+    private final long maxNodes;
+    private final long deadlineMillis;
+
+    private SearchLimits(int maxDepth, long moveTimeMs, long maxNodes, long deadlineMillis) {
+        this.maxDepth = Math.max(1, Math.min(MAX_DEPTH, maxDepth));
+        this.moveTimeMs = Math.max(0, moveTimeMs);
+        this.maxNodes = Math.max(0, maxNodes);
+        this.deadlineMillis = Math.max(0, deadlineMillis);
+    }
+
+    /**
+     * Busca sem limites além da profundidade máxima
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits(MAX_DEPTH, 0, 0, 0);
+    }
+
+    /**
+     * Busca até a profundidade informada
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0, 0);
+    }
+
+    /**
+     * Busca durante aproximadamente o tempo informado
+     */
+    public static SearchLimits moveTime(long moveTimeMs) {
+        return new SearchLimits(MAX_DEPTH, moveTimeMs, 0, 0);
+    }
+
+    /**
+     * Busca até visitar o número de nós informado
+     */
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, 0, maxNodes, 0);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, moveTimeMs, maxNodes, deadlineMillis);
+    }
+
+    public SearchLimits withMoveTime(long moveTimeMs) {
+        return new SearchLimits(maxDepth, moveTimeMs, maxNodes, deadlineMillis);
+    }
+
+    public SearchLimits withNodes(long maxNodes) {
+        return new SearchLimits(maxDepth, moveTimeMs, maxNodes, deadlineMillis);
+    }
+
+    /**
+     * Prazo final absoluto, em milissegundos desde a época
+     */
+    public SearchLimits withDeadline(long deadlineMillis) {
+        return new SearchLimits(maxDepth, moveTimeMs, maxNodes, deadlineMillis);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMoveTimeMs() {
+        return moveTimeMs;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits[profundidade=" + maxDepth + ", tempo=" + moveTimeMs + "ms, nós=" + maxNodes
+                + ", prazo=" + deadlineMillis + "]";
+    }
+}
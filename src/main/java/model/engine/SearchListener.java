@@ -0,0 +1,18 @@
+package model.engine;
+
+/**
+ * Recebe o resultado de cada iteração completa do aprofundamento iterativo, por exemplo para
+ * as linhas {@code info} da UCI. É chamado pela thread que concluiu a iteração.
+ */
+@FunctionalInterface
+public interface SearchListener {
+    /**
+     * @param depth profundidade concluída
+     * @param score pontuação em centipeões do ponto de vista de quem joga na raiz
+     *              (mate vale {@link AlphaBetaSearch#MATE} menos a distância em plies)
+     * @param nodes nós visitados até aqui, somando todas as threads
+     * @param elapsedMillis tempo desde o início da busca
+     * @param pv variante principal, começando pelo melhor movimento da iteração
+     */
+    void iterationCompleted(int depth, int score, long nodes, long elapsedMillis, int[] pv);
+}
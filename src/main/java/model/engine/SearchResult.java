@@ -0,0 +1,86 @@
+package model.engine;
+
+/**
+ * Resultado de uma busca de {@link SearchEngine}: o melhor movimento da iteração completa mais
+ * profunda, com a pontuação, a variante principal e o custo da busca. Imutável.
+ */
+public final class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final int[] pv;
+    private final long nodes;
+    private final long timeMillis;
+
+    public SearchResult(int bestMove, int score, int depth, int[] pv, long nodes, long timeMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.pv = pv.clone();
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    /**
+     * Resultado de uma posição sem movimentos legais: mate ou afogamento
+     */
+    public static SearchResult noLegalMoves(BitBoard position) {
+        int score = position.isInCheck(position.isWhiteToMove()) ? -AlphaBetaSearch.MATE : 0;
+        return new SearchResult(PackedMove.NONE, score, 0, new int[0], 0, 0);
+    }
+
+    /**
+     * Melhor movimento ({@link PackedMove}), ou {@link PackedMove#NONE} sem movimentos legais
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public boolean hasMove() {
+        return bestMove != PackedMove.NONE;
+    }
+
+    /**
+     * Pontuação em centipeões do ponto de vista de quem joga (mate vale
+     * {@link AlphaBetaSearch#MATE} menos a distância em plies)
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Profundidade da iteração completa mais profunda (0 se nenhuma terminou a tempo)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Variante principal, começando pelo melhor movimento
+     */
+    public int[] getPrincipalVariation() {
+        return pv.clone();
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("SearchResult[")
+            .append(hasMove() ? PackedMove.toUci(bestMove) : "(nenhum)")
+            .append(", pontuação=").append(score)
+            .append(", profundidade=").append(depth)
+            .append(", nós=").append(nodes)
+            .append(", ").append(timeMillis).append(" ms, pv=");
+        for (int i = 0; i < pv.length; i++) {
+            text.append(i == 0 ? "" : " ").append(PackedMove.toUci(pv[i]));
+        }
+        return text.append(']').toString();
+    }
+}
@@ -0,0 +1,55 @@
+package model.engine;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads auxiliares da busca paralela (Lazy SMP). São threads daemon, para não
+ * impedir o encerramento da aplicação quando o motor não é desligado explicitamente.
+ */
+public final class SearchThreadPool {
+    private final ExecutorService executor;
+    private final int size;
+
+    public SearchThreadPool(String name, int size) {
+        this.size = size;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Future<?> submit(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Espera as tarefas terminarem, repassando exceções lançadas por elas
+     */
+    public static void awaitAll(List<Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha numa thread de busca", e.getCause());
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
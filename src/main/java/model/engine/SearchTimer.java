@@ -0,0 +1,165 @@
+package model.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controla uma busca em andamento segundo os seus {@link SearchLimits}.
+ *
+ * A busca chama {@link #countNode()} a cada nó; o relógio e o total de nós de todas as
+ * threads só são consultados a cada {@code CHECK_INTERVAL} nós. Uma nova iteração só
+ * começa se ainda houver tempo para ela (metade do orçamento), e a iteração em andamento
+ * é abortada ao esgotar o orçamento, os nós ou o prazo final, o que vier primeiro.
+ *
+ * Um relógio de ponderação ({@link #pondering}) busca no tempo do adversário: ignora tempo e nós
+ * até {@link #ponderHit()}. O orçamento conta desde o início da ponderação, então se o adversário
+ * demorou mais que o tempo por jogada a resposta sai na hora.
+ */
+public final class SearchTimer {
+    private static final int CHECK_INTERVAL = 256;
+    // Folga antes do prazo final para a busca desempilhar e devolver o movimento
+    private static final long DEADLINE_MARGIN_MS = 20;
+
+    private final SearchLimits limits;
+    private final SearchTimer parent; // busca principal, para threads auxiliares
+    private final long startNanos;
+    private final long softStopNanos;
+    private final long hardStopNanos;
+    private final AtomicLong sharedNodes = new AtomicLong();
+    private long nodes;
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+
+    public SearchTimer(SearchLimits limits) {
+        this(limits, false);
+    }
+
+    private SearchTimer(SearchLimits limits, boolean pondering) {
+        this.limits = limits;
+        this.parent = null;
+        this.pondering = pondering;
+        this.startNanos = System.nanoTime();
+        long hard = Long.MAX_VALUE;
+        long soft = Long.MAX_VALUE;
+        if (limits.getMoveTimeMs() > 0) {
+            hard = startNanos + limits.getMoveTimeMs() * 1_000_000L;
+            soft = startNanos + limits.getMoveTimeMs() * 500_000L;
+        }
+        if (limits.getDeadlineMillis() > 0) {
+            long remainingMs = limits.getDeadlineMillis() - System.currentTimeMillis() - DEADLINE_MARGIN_MS;
+            long deadline = startNanos + Math.max(0, remainingMs) * 1_000_000L;
+            hard = Math.min(hard, deadline);
+            soft = Math.min(soft, deadline);
+        }
+        this.softStopNanos = soft;
+        this.hardStopNanos = hard;
+    }
+
+    private SearchTimer(SearchTimer parent) {
+        this.limits = parent.limits;
+        this.parent = parent;
+        this.startNanos = parent.startNanos;
+        this.softStopNanos = parent.softStopNanos;
+        this.hardStopNanos = parent.hardStopNanos;
+    }
+
+    /**
+     * Relógio de uma busca no tempo do adversário: só a profundidade máxima e {@link #stop()}
+     * a encerram até que {@link #ponderHit()} ative os demais limites
+     */
+    public static SearchTimer pondering(SearchLimits limits) {
+        return new SearchTimer(limits, true);
+    }
+
+    /**
+     * O adversário jogou o lance esperado: a busca passa a valer como a da resposta, com os
+     * limites contados desde o início da ponderação
+     */
+    public void ponderHit() {
+        root().pondering = false;
+    }
+
+    public boolean isPondering() {
+        return root().pondering;
+    }
+
+    /**
+     * Cria o relógio de uma thread auxiliar: compartilha os prazos e o limite de nós
+     * e para junto com a busca principal, mas conta os próprios nós sem sincronização.
+     */
+    public SearchTimer createHelper() {
+        return new SearchTimer(root());
+    }
+
+    private SearchTimer root() {
+        return parent == null ? this : parent;
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Conta um nó visitado. Retorna true quando a busca deve ser abortada.
+     */
+    public boolean countNode() {
+        if (isStopped()) {
+            return true;
+        }
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0) {
+            // O limite de nós vale para a soma de todas as threads da busca
+            SearchTimer root = root();
+            long total = root.sharedNodes.addAndGet(CHECK_INTERVAL);
+            if (root.pondering) {
+                return isStopped();
+            }
+            if (limits.getMaxNodes() > 0 && total >= limits.getMaxNodes()) {
+                root.stopped = true;
+            } else if (System.nanoTime() >= hardStopNanos) {
+                stopped = true;
+            }
+        }
+        return isStopped();
+    }
+
+    /**
+     * Indica se a iteração em andamento foi abortada e deve ser descartada
+     */
+    public boolean isStopped() {
+        return stopped || (parent != null && parent.stopped);
+    }
+
+    /**
+     * Interrompe a busca (por exemplo a pedido do jogador)
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Indica se vale a pena começar uma iteração com a profundidade informada
+     */
+    public boolean canStartIteration(int depth) {
+        return !isStopped() && depth <= limits.getMaxDepth()
+                && (root().pondering || System.nanoTime() < softStopNanos);
+    }
+
+    /**
+     * Nós visitados pela thread dona deste relógio
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Nós visitados por todas as threads da busca (aproximado enquanto ela está em andamento)
+     */
+    public long getTotalNodes() {
+        SearchTimer root = root();
+        return root.sharedNodes.get() + (nodes & (CHECK_INTERVAL - 1));
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
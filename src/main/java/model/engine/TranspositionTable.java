@@ -0,0 +1,272 @@
+package model.engine;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição de tamanho fixo, indexada pela chave de Zobrist da posição.
+ *
+ * Os dados ficam num único {@code long[]}: cada entrada ocupa dois longs (chave XOR dados, dados)
+ * e cada balde tem duas entradas. A primeira entrada do balde é "preferência por profundidade"
+ * (só é substituída por buscas mais profundas ou de uma busca anterior); a segunda é
+ * "sempre substitui". Guardar a chave como XOR dos dados permite leituras sem trava:
+ * uma entrada escrita pela metade simplesmente não confere com a chave.
+ *
+ * Layout dos 64 bits de dados:
+ * <pre>
+ *  bits  0-19  melhor movimento (codificação definida pelo motor)
+ *  bits 20-27  profundidade
+ *  bits 28-29  tipo de limite (EXACT, LOWER, UPPER)
+ *  bits 30-31  geração da busca
+ *  bits 32-63  pontuação
+ * </pre>
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER = 2; // pontuação >= valor guardado (corte beta)
+    public static final int UPPER = 3; // pontuação <= valor guardado (falhou baixo)
+
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int MOVE_MASK = 0xFFFFF;
+    // Lances legais para conferir o movimento guardado, um buffer por thread (a tabela é compartilhada)
+    private static final ThreadLocal<int[]> LEGAL_MOVES = ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+
+    private long[] table;
+    private int bucketMask;
+    private int generation;
+
+    // Estatísticas (aproximadas quando a tabela é compartilhada entre threads)
+    private long probes;
+    private long hits;
+    private long stores;
+    private long replacements;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    public TranspositionTable(int sizeMb) {
+        resize(sizeMb);
+    }
+
+    /**
+     * Realoca a tabela para caber no orçamento de memória (em MB). O número de baldes
+     * é arredondado para baixo até uma potência de dois. Apaga todas as entradas.
+     */
+    public void resize(int sizeMb) {
+        long bytes = Math.max(1, sizeMb) * 1024L * 1024L;
+        long buckets = Long.highestOneBit(Math.max(1, bytes / BYTES_PER_BUCKET));
+        // Limite de tamanho de array do Java
+        buckets = Math.min(buckets, 1L << 28);
+        table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        bucketMask = (int) buckets - 1;
+        generation = 0;
+        resetStatistics();
+    }
+
+    /**
+     * Apaga todas as entradas mantendo o tamanho
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+        resetStatistics();
+    }
+
+    /**
+     * Marca o início de uma nova busca: entradas de buscas anteriores passam a ser substituíveis
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 3;
+    }
+
+    /**
+     * Procura a posição. Retorna os dados da entrada, ou 0 se não houver entrada para a chave.
+     */
+    public long probe(long key) {
+        probes++;
+        int base = bucketIndex(key);
+        for (int slot = base; slot < base + LONGS_PER_BUCKET; slot += 2) {
+            long data = table[slot + 1];
+            if (data != 0 && (table[slot] ^ data) == key) {
+                hits++;
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Guarda o resultado da busca de uma posição
+     */
+    public void store(long key, int move, int depth, int bound, int score) {
+        stores++;
+        int base = bucketIndex(key);
+        long data = pack(move, depth, bound, score);
+
+        long deepData = table[base + 1];
+        if (deepData == 0 || generationOf(deepData) != generation || depth >= depthOf(deepData)) {
+            if (deepData != 0 && (table[base] ^ deepData) != key) {
+                // A entrada antiga ainda é útil: desce para o slot "sempre substitui"
+                replacements++;
+                table[base + 2] = table[base];
+                table[base + 3] = deepData;
+            }
+            writeSlot(base, key, data);
+        } else {
+            if (table[base + 3] != 0) {
+                replacements++;
+            }
+            writeSlot(base + 2, key, data);
+        }
+    }
+
+    /**
+     * Melhor movimento guardado para a posição, se for legal nela (chaves podem colidir);
+     * {@link PackedMove#NONE} caso contrário
+     */
+    public int probeMove(BitBoard board) {
+        long data = probe(board.getZobristKey());
+        if (data == 0) {
+            return PackedMove.NONE;
+        }
+        int move = moveOf(data);
+        int[] moves = LEGAL_MOVES.get();
+        int total = MoveGenerator.generateLegal(board, moves);
+        for (int i = 0; i < total; i++) {
+            if (moves[i] == move) {
+                return move;
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Variante principal a partir da raiz: o melhor movimento dela seguido dos movimentos
+     * guardados nas posições seguintes, até faltar entrada, repetir posição ou atingir o tamanho
+     */
+    public int[] principalVariation(BitBoard root, int bestMove, int maxLength) {
+        BitBoard board = new BitBoard();
+        board.copyFrom(root);
+        int[] pv = new int[maxLength];
+        long[] keys = new long[maxLength];
+        int length = 0;
+        int move = bestMove;
+        while (move != PackedMove.NONE && length < maxLength) {
+            board.makeMove(move);
+            pv[length] = move;
+            keys[length++] = board.getZobristKey();
+            for (int i = 0; i < length - 1; i++) {
+                if (keys[i] == keys[length - 1]) {
+                    return Arrays.copyOf(pv, length); // ciclo na tabela
+                }
+            }
+            move = probeMove(board);
+        }
+        return Arrays.copyOf(pv, length);
+    }
+
+    public static int moveOf(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int depthOf(long data) {
+        return (int) ((data >>> 20) & MAX_DEPTH);
+    }
+
+    public static int boundOf(long data) {
+        return (int) ((data >>> 28) & 3);
+    }
+
+    public static int scoreOf(long data) {
+        return (int) (data >>> 32);
+    }
+
+    /**
+     * Tamanho atual da tabela em bytes
+     */
+    public long sizeInBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    public long getReplacements() {
+        return replacements;
+    }
+
+    /**
+     * Fração das consultas que encontraram a posição (0..1)
+     */
+    public double getHitRate() {
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+
+    /**
+     * Ocupação estimada em partes por mil, amostrando os primeiros 1000 baldes
+     */
+    public int usagePermill() {
+        int sampled = Math.min(1000, bucketMask + 1);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            int base = i * LONGS_PER_BUCKET;
+            if (table[base + 1] != 0 && generationOf(table[base + 1]) == generation) used++;
+            if (table[base + 3] != 0 && generationOf(table[base + 3]) == generation) used++;
+        }
+        return used * 1000 / (sampled * 2);
+    }
+
+    public void resetStatistics() {
+        probes = 0;
+        hits = 0;
+        stores = 0;
+        replacements = 0;
+    }
+
+    /**
+     * Resumo das estatísticas para dimensionar a tabela
+     */
+    public String getStatistics() {
+        return String.format("%d MB, consultas=%d, acertos=%d (%.1f%%), gravações=%d, substituições=%d, ocupação=%d‰",
+                sizeInBytes() / (1024 * 1024), probes, hits, getHitRate() * 100.0, stores, replacements, usagePermill());
+    }
+
+    private int bucketIndex(long key) {
+        // Os bits altos escolhem o balde; a chave inteira é conferida na leitura
+        return ((int) (key >>> 32) & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    private void writeSlot(int slot, long key, long data) {
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    private long pack(int move, int depth, int bound, int score) {
+        return (move & MOVE_MASK)
+                | ((long) Math.min(Math.max(depth, 0), MAX_DEPTH) << 20)
+                | ((long) (bound & 3) << 28)
+                | ((long) generation << 30)
+                | ((long) score << 32);
+    }
+
+    private static int generationOf(long data) {
+        return (int) ((data >>> 30) & 3);
+    }
+}
@@ -0,0 +1,57 @@
+package model.engine;
+
+import java.util.Random;
+
+/**
+ * Chaves de Zobrist compartilhadas por {@link model.Board} e {@link BitBoard}.
+ *
+ * A chave de uma posição é o XOR das chaves de cada peça na sua casa, do lado a jogar
+ * (quando são as pretas), dos direitos de roque e da coluna do alvo de en passant.
+ * Como as duas representações usam as mesmas tabelas, a mesma posição gera a mesma chave.
+ */
+public final class Zobrist {
+    /** Chave por peça (cor * 6 + tipo) e casa */
+    public static final long[][] PIECES = new long[12][64];
+    /** XOR aplicado quando são as pretas a jogar */
+    public static final long BLACK_TO_MOVE;
+    /** Chave por combinação de direitos de roque (índice 0 = nenhum direito = 0) */
+    public static final long[] CASTLING = new long[16];
+    /** Chave por coluna do alvo de en passant */
+    public static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        // Semente fixa: chaves reprodutíveis entre execuções
+        Random rng = new Random(0x5EED_C0DEL);
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECES[piece][sq] = rng.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = rng.nextLong();
+        long[] rights = new long[4];
+        for (int i = 0; i < 4; i++) {
+            rights[i] = rng.nextLong();
+        }
+        for (int mask = 0; mask < 16; mask++) {
+            long key = 0L;
+            for (int i = 0; i < 4; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    key ^= rights[i];
+                }
+            }
+            CASTLING[mask] = key;
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = rng.nextLong();
+        }
+    }
+
+    private Zobrist() {}
+
+    /**
+     * Chave do alvo de en passant (0 quando não há alvo)
+     */
+    public static long enPassantKey(int sq) {
+        return sq < 0 ? 0L : EN_PASSANT_FILE[sq & 7];
+    }
+}
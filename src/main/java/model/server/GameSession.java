@@ -0,0 +1,211 @@
+package model.server;
+
+import model.Game;
+import model.Move;
+import model.Position;
+import model.engine.BitBoard;
+import model.engine.MoveGenerator;
+import model.engine.PackedMove;
+import model.engine.SearchTimer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Uma partida hospedada pelo {@link SessionManager}: o jogador joga de brancas e a IA de pretas.
+ *
+ * O {@link Game} da sessão só guarda as regras e o histórico; as IAs dele nunca são criadas,
+ * porque a busca roda nos motores compartilhados do gerenciador. Todo acesso à partida é
+ * sincronizado na sessão, já que a resposta da IA é aplicada pela thread da fila.
+ */
+public final class GameSession {
+    /**
+     * Estimativa da memória de uma sessão nova (sessão, {@link Game}, {@link model.Board} com as
+     * peças iniciais e os buffers do gerador), medida com o {@link SessionDriver} numa JVM de 64 bits
+     * com ponteiros comprimidos
+     */
+    static final long BASE_BYTES = 4_800;
+    /** Estimativa do que cada lance acrescenta (o {@link Move}, o histórico e a contagem de repetições) */
+    static final long BYTES_PER_PLY = 140;
+
+    private final long id;
+    private final Game game = new Game();
+    private boolean closed;
+    // Resposta da IA na fila ou em busca; também identifica o pedido, que vale enquanto for este
+    private CompletableFuture<Move> pendingReply;
+    private SearchTimer thinking; // relógio da busca em andamento, para interrompê-la
+
+    GameSession(long id) {
+        this.id = id;
+        game.setAIEnabled(true);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public synchronized boolean isWhiteTurn() {
+        return game.isWhiteTurn();
+    }
+
+    public synchronized boolean isGameOver() {
+        return game.isGameOver();
+    }
+
+    public synchronized String getGameResult() {
+        return game.getGameResult();
+    }
+
+    /**
+     * Lances jogados até agora, das duas cores
+     */
+    public synchronized int getPlyCount() {
+        return game.getMoveHistory().size();
+    }
+
+    /**
+     * Posição atual em FEN
+     */
+    public synchronized String getFen() {
+        return BitBoard.fromBoard(game.getBoard(), game.isWhiteTurn()).toFen();
+    }
+
+    /**
+     * Lances legais do lado a jogar, em notação UCI
+     */
+    public synchronized List<String> getLegalMoves() {
+        // Buffer local: guardá-lo na sessão custaria 1 KB em cada uma
+        int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+        int total = MoveGenerator.generateLegal(BitBoard.fromBoard(game.getBoard(), game.isWhiteTurn()), legalMoves);
+        List<String> moves = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            moves.add(PackedMove.toUci(legalMoves[i]));
+        }
+        return moves;
+    }
+
+    /**
+     * Verifica se há uma resposta da IA pedida e ainda não aplicada
+     */
+    public synchronized boolean isAIThinking() {
+        return pendingReply != null;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Memória estimada da sessão em bytes, pelas constantes medidas acima
+     */
+    public synchronized long estimateMemoryBytes() {
+        return BASE_BYTES + BYTES_PER_PLY * game.getMoveHistory().size();
+    }
+
+    /**
+     * Joga o lance do jogador (brancas) em notação UCI
+     *
+     * @throws IllegalStateException se não é a vez do jogador
+     * @throws IllegalArgumentException se o lance não é legal
+     */
+    synchronized void playerMove(String uci) {
+        if (closed || game.isGameOver() || !game.isWhiteTurn() || pendingReply != null) {
+            throw new IllegalStateException("Não é a vez do jogador na sessão " + id);
+        }
+        int move = findLegalMove(uci);
+        if (move == PackedMove.NONE) {
+            throw new IllegalArgumentException("Lance ilegal na sessão " + id + ": " + uci);
+        }
+        // O Game promove o peão do jogador sempre a dama
+        if (PackedMove.isPromotion(move) && PackedMove.promotionType(move) != BitBoard.QUEEN) {
+            throw new IllegalArgumentException("Só a promoção a dama é aceita: " + uci);
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        game.selectPiece(new Position(from >>> 3, from & 7));
+        game.makeMove(new Position(to >>> 3, to & 7));
+    }
+
+    private int findLegalMove(String uci) {
+        int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+        int total = MoveGenerator.generateLegal(BitBoard.fromBoard(game.getBoard(), true), legalMoves);
+        for (int i = 0; i < total; i++) {
+            if (PackedMove.toUci(legalMoves[i]).equals(uci)) {
+                return legalMoves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    synchronized CompletableFuture<Move> getPendingReply() {
+        return pendingReply;
+    }
+
+    /**
+     * Registra um pedido de resposta da IA, se não há outro pendente: a sessão nunca ocupa mais
+     * de um lugar na fila
+     *
+     * @return o pedido novo, ou null se já há um pendente ou a IA não tem o que jogar
+     */
+    synchronized CompletableFuture<Move> requestReply() {
+        if (pendingReply != null || closed || !game.isAITurn()) {
+            return null;
+        }
+        pendingReply = new CompletableFuture<>();
+        return pendingReply;
+    }
+
+    /**
+     * Posição para a IA buscar, com o relógio que a sessão pode interromper; null se o pedido
+     * deixou de valer (sessão fechada) enquanto esperava na fila
+     */
+    synchronized BitBoard startThinking(CompletableFuture<Move> reply, SearchTimer timer) {
+        if (reply != pendingReply) {
+            return null;
+        }
+        thinking = timer;
+        return BitBoard.fromBoard(game.getBoard(), false);
+    }
+
+    /**
+     * Aplica a resposta da IA e libera a sessão para o próximo lance do jogador
+     *
+     * @return o lance aplicado, ou null se o pedido deixou de valer ou a IA não tinha lance legal
+     */
+    synchronized Move finishThinking(CompletableFuture<Move> reply, int move) {
+        thinking = null;
+        if (reply != pendingReply) {
+            return null;
+        }
+        pendingReply = null;
+        Move aiMove = move == PackedMove.NONE ? null : PackedMove.toMove(move, game.getBoard());
+        if (!game.applyAIMove(aiMove)) {
+            return null;
+        }
+        List<Move> history = game.getMoveHistory();
+        return history.get(history.size() - 1);
+    }
+
+    /**
+     * Desiste do pedido pendente (fila cheia ou erro na busca); o jogador pode pedir de novo
+     */
+    synchronized void abandonReply(CompletableFuture<Move> reply) {
+        if (pendingReply == reply) {
+            pendingReply = null;
+        }
+        thinking = null;
+    }
+
+    /**
+     * Fecha a sessão: a busca em andamento é interrompida e os pedidos na fila, descartados
+     */
+    synchronized CompletableFuture<Move> close() {
+        closed = true;
+        if (thinking != null) {
+            thinking.stop();
+        }
+        CompletableFuture<Move> reply = pendingReply;
+        pendingReply = null;
+        return reply;
+    }
+}
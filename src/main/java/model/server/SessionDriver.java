@@ -0,0 +1,110 @@
+package model.server;
+
+import model.IANivel8;
+import model.engine.NnueEvaluator;
+import model.engine.SearchLimits;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Teste de carga do {@link SessionManager} dentro do próprio processo: abre muitas partidas e,
+ * em cada uma, um "jogador" faz lances legais aleatórios e espera a resposta da IA, até um número
+ * de lances ou o fim da partida. Mede a memória das sessões (estimada e pelo heap) e a vazão da fila.
+ * Uso:
+ * <pre>
+ *   java -cp target/classes model.server.SessionDriver [sessões] [threads] [lancesPorPartida] [tempoMs] [nnue]
+ * </pre>
+ */
+public class SessionDriver {
+    private static final int SESSOES_PADRAO = 2000;
+    private static final int LANCES_PADRAO = 10;
+    private static final long TEMPO_PADRAO_MS = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessoes = args.length > 0 ? Integer.parseInt(args[0]) : SESSOES_PADRAO;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int lances = args.length > 2 ? Integer.parseInt(args[2]) : LANCES_PADRAO;
+        long tempoMs = args.length > 3 ? Long.parseLong(args[3]) : TEMPO_PADRAO_MS;
+        boolean nnue = args.length > 4 && args[4].equalsIgnoreCase("nnue");
+
+        // Fila menor que o número de partidas: com ela cheia os jogadores esperam a próxima varredura
+        int capacidade = Math.min(SessionManager.DEFAULT_QUEUE_CAPACITY, Math.max(1, sessoes / 2));
+        try (SessionManager servidor = new SessionManager(IANivel8::new, nnue ? new NnueEvaluator() : null,
+                SearchLimits.moveTime(tempoMs), threads, capacidade)) {
+            long heapAntes = heapUsado();
+            List<GameSession> partidas = new ArrayList<>(sessoes);
+            for (int i = 0; i < sessoes; i++) {
+                partidas.add(servidor.openSession());
+            }
+            long heapDepois = heapUsado();
+            System.out.printf("%d sessões abertas: %.2f KB por sessão no heap, %.2f KB estimados%n", sessoes,
+                    (heapDepois - heapAntes) / 1024.0 / sessoes, GameSession.BASE_BYTES / 1024.0);
+
+            long inicio = System.nanoTime();
+            jogar(servidor, partidas, lances, capacidade);
+            long decorrido = (System.nanoTime() - inicio) / 1_000_000L;
+
+            long jogadas = servidor.getAIMoveCount();
+            System.out.printf("%d jogadas da IA em %d ms (%.0f jogadas/s, %d threads, %d ms por busca)%n",
+                    jogadas, decorrido, jogadas * 1000.0 / Math.max(1, decorrido), threads, tempoMs);
+            System.out.println(servidor.getReport());
+
+            // O heap também tem os motores (tabelas de transposição): a medida é o que sai ao fechar as partidas
+            long comPartidas = heapUsado();
+            for (GameSession partida : partidas) {
+                servidor.closeSession(partida.getId());
+            }
+            partidas.clear();
+            System.out.printf("Heap liberado ao fechar as partidas jogadas: %.2f KB por sessão%n",
+                    (comPartidas - heapUsado()) / 1024.0 / sessoes);
+        }
+    }
+
+    // Varre as partidas fazendo o lance do jogador em cada uma que está esperando por ele
+    private static void jogar(SessionManager servidor, List<GameSession> partidas, int lances, int capacidade)
+            throws InterruptedException {
+        Random random = new Random(1L);
+        List<GameSession> ativas = new ArrayList<>(partidas);
+        while (!ativas.isEmpty()) {
+            List<GameSession> seguintes = new ArrayList<>(ativas.size());
+            for (GameSession partida : ativas) {
+                if (partida.isAIThinking()) {
+                    seguintes.add(partida);
+                } else if (partida.isGameOver() || partida.getPlyCount() >= 2 * lances) {
+                    continue; // terminou
+                } else if (servidor.getQueuedRequests() >= capacidade) {
+                    seguintes.add(partida); // fila cheia: espera a próxima varredura
+                } else if (!partida.isWhiteTurn()) {
+                    // O pedido anterior foi recusado com a fila cheia: pede de novo
+                    servidor.requestAIMove(partida.getId()).exceptionally(SessionDriver::recusado);
+                    seguintes.add(partida);
+                } else {
+                    List<String> legais = partida.getLegalMoves();
+                    String lance = legais.get(random.nextInt(legais.size()));
+                    servidor.play(partida.getId(), lance).exceptionally(SessionDriver::recusado);
+                    seguintes.add(partida);
+                }
+            }
+            ativas = seguintes;
+            Thread.sleep(1);
+        }
+    }
+
+    private static <T> T recusado(Throwable erro) {
+        if (!(erro instanceof RejectedExecutionException)) {
+            erro.printStackTrace();
+        }
+        return null;
+    }
+
+    private static long heapUsado() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
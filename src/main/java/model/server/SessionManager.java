@@ -0,0 +1,258 @@
+package model.server;
+
+import model.Move;
+import model.engine.BitBoard;
+import model.engine.Evaluator;
+import model.engine.SearchEngine;
+import model.engine.SearchLimits;
+import model.engine.SearchResult;
+import model.engine.SearchTimer;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hospeda muitas partidas simultâneas ({@link GameSession}) sobre poucos motores de busca.
+ *
+ * As sessões não têm IA própria: os pedidos de resposta entram numa fila limitada, atendida por
+ * um número fixo de threads, cada uma com o seu {@link SearchEngine} (a tabela de transposição e
+ * os buffers de busca não podem ser divididos entre buscas simultâneas). A função de avaliação,
+ * imutável, é uma só para todos os motores. A memória fica então em poucos motores mais o
+ * tabuleiro e o histórico de cada sessão.
+ *
+ * A fila é atendida por ordem de chegada e cada sessão ocupa no máximo um lugar nela (só há um
+ * pedido pendente por partida, e o jogador não joga enquanto ele não é atendido). Nenhuma partida
+ * passa à frente das outras: com N partidas esperando, cada uma recebe uma busca a cada N, e os
+ * limites de busca são os mesmos para todas. Com a fila cheia o pedido falha com
+ * {@link RejectedExecutionException} e pode ser repetido por {@link #requestAIMove}.
+ */
+public final class SessionManager implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Supplier<SearchEngine> engineFactory;
+    private final Evaluator evaluator;
+    private final SearchLimits limits;
+    private final ThreadPoolExecutor workers;
+    private final int queueCapacity;
+    // Um motor por thread da fila, criado na primeira busca dela
+    private final ThreadLocal<SearchEngine> engines;
+
+    // Estatísticas
+    private final AtomicLong aiMoves = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong(); // tempo na fila
+    private final AtomicLong searchNanos = new AtomicLong();
+    private final AtomicInteger enginesCreated = new AtomicInteger();
+
+    /**
+     * @param engineFactory cria o motor de cada thread (sem ouvinte de iterações)
+     * @param evaluator avaliação compartilhada por todos os motores (null = a própria de cada um)
+     * @param limits limites de cada busca da IA
+     * @param threads threads que atendem a fila (motores simultâneos)
+     * @param queueCapacity pedidos que podem esperar na fila
+     */
+    public SessionManager(Supplier<SearchEngine> engineFactory, Evaluator evaluator, SearchLimits limits,
+                          int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads e capacidade da fila devem ser positivas");
+        }
+        this.engineFactory = engineFactory;
+        this.evaluator = evaluator;
+        this.limits = limits;
+        this.queueCapacity = queueCapacity;
+        this.engines = ThreadLocal.withInitial(this::newEngine);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "sessoes-ia-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Motores silenciosos: ninguém acompanha as iterações de milhares de buscas
+    private SearchEngine newEngine() {
+        SearchEngine engine = engineFactory.get();
+        engine.setSearchListener(null);
+        if (evaluator != null) {
+            engine.setEvaluator(evaluator);
+        }
+        enginesCreated.incrementAndGet();
+        return engine;
+    }
+
+    /**
+     * Abre uma partida nova, com o jogador de brancas
+     */
+    public GameSession openSession() {
+        GameSession session = new GameSession(nextId.getAndIncrement());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Sessão pelo identificador, ou null se não existe (ou já foi fechada)
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Fecha a partida: interrompe a busca dela e cancela a resposta pendente
+     */
+    public void closeSession(long id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) {
+            CompletableFuture<Move> reply = session.close();
+            if (reply != null) {
+                reply.cancel(false);
+            }
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Joga o lance do jogador (UCI, ex.: "e2e4") e pede a resposta da IA
+     *
+     * @return a resposta da IA, ou um futuro já concluído com null se a partida terminou
+     * @throws IllegalStateException se a sessão não existe ou não é a vez do jogador
+     * @throws IllegalArgumentException se o lance não é legal
+     */
+    public CompletableFuture<Move> play(long id, String uciMove) {
+        GameSession session = requireSession(id);
+        session.playerMove(uciMove);
+        return requestAIMove(session);
+    }
+
+    /**
+     * Pede a resposta da IA da partida; se já há uma pendente, devolve a mesma. Serve para
+     * repetir um pedido recusado com a fila cheia.
+     *
+     * @return a resposta da IA, ou um futuro já concluído com null se não é a vez dela
+     */
+    public CompletableFuture<Move> requestAIMove(long id) {
+        return requestAIMove(requireSession(id));
+    }
+
+    private CompletableFuture<Move> requestAIMove(GameSession session) {
+        CompletableFuture<Move> reply = session.requestReply();
+        if (reply == null) {
+            CompletableFuture<Move> pending = session.getPendingReply();
+            return pending != null ? pending : CompletableFuture.completedFuture(null);
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            workers.execute(() -> think(session, reply, queuedAt));
+        } catch (RejectedExecutionException e) {
+            // Fila cheia (ou gerenciador fechado): a sessão fica livre para pedir de novo
+            rejected.incrementAndGet();
+            session.abandonReply(reply);
+            reply.completeExceptionally(e);
+        }
+        return reply;
+    }
+
+    // Executado por uma thread da fila
+    private void think(GameSession session, CompletableFuture<Move> reply, long queuedAt) {
+        long start = System.nanoTime();
+        try {
+            SearchTimer timer = new SearchTimer(limits);
+            BitBoard position = session.startThinking(reply, timer);
+            if (position == null) {
+                reply.cancel(false); // sessão fechada enquanto esperava
+                return;
+            }
+            SearchResult result = engines.get().search(position, timer);
+            Move move = session.finishThinking(reply, result.getBestMove());
+            if (move != null) {
+                aiMoves.incrementAndGet();
+                waitNanos.addAndGet(start - queuedAt);
+                searchNanos.addAndGet(System.nanoTime() - start);
+            }
+            reply.complete(move);
+        } catch (RuntimeException e) {
+            session.abandonReply(reply);
+            reply.completeExceptionally(e);
+        }
+    }
+
+    private GameSession requireSession(long id) {
+        GameSession session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalStateException("Sessão inexistente: " + id);
+        }
+        return session;
+    }
+
+    /**
+     * Pedidos esperando na fila (sem contar os que estão em busca)
+     */
+    public int getQueuedRequests() {
+        return workers.getQueue().size();
+    }
+
+    public long getAIMoveCount() {
+        return aiMoves.get();
+    }
+
+    public long getRejectedRequests() {
+        return rejected.get();
+    }
+
+    /**
+     * Soma da memória estimada das sessões abertas, em bytes (sem os motores)
+     */
+    public long estimateSessionMemoryBytes() {
+        long total = 0;
+        for (GameSession session : sessions.values()) {
+            total += session.estimateMemoryBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Resumo do estado do servidor: sessões, fila, motores, memória e tempos da IA
+     */
+    public String getReport() {
+        int count = sessions.size();
+        long memory = estimateSessionMemoryBytes();
+        long moves = aiMoves.get();
+        StringBuilder report = new StringBuilder();
+        report.append("Sessões abertas: ").append(count).append('\n');
+        report.append("Fila: ").append(getQueuedRequests()).append('/').append(queueCapacity)
+                .append(" (em busca: ").append(workers.getActiveCount())
+                .append(", recusados: ").append(rejected.get()).append(")\n");
+        report.append("Motores: ").append(enginesCreated.get()).append(" de ").append(workers.getMaximumPoolSize())
+                .append(", avaliação ").append(evaluator == null ? "própria de cada motor" : "compartilhada")
+                .append('\n');
+        report.append(String.format("Memória estimada das sessões: %.1f KB (%.2f KB por sessão)%n",
+                memory / 1024.0, count == 0 ? 0.0 : memory / 1024.0 / count));
+        report.append(String.format("Jogadas da IA: %d (espera média na fila %.1f ms, busca média %.1f ms)",
+                moves, moves == 0 ? 0.0 : waitNanos.get() / 1e6 / moves,
+                moves == 0 ? 0.0 : searchNanos.get() / 1e6 / moves));
+        return report.toString();
+    }
+
+    /**
+     * Fecha todas as sessões e encerra as threads da fila
+     */
+    @Override
+    public void close() {
+        for (Long id : sessions.keySet()) {
+            closeSession(id);
+        }
+        workers.shutdown();
+    }
+}
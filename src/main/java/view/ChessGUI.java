@@ -1,12 +1,19 @@
 package view;
 
 import model.*;
+import model.engine.Evaluator;
+import model.engine.NnueEvaluator;
+import model.engine.PstEvaluator;
 import model.pieces.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Interface gráfica principal do jogo de xadrez
@@ -19,8 +26,20 @@ public class ChessGUI extends JFrame {
     private JTextArea moveHistoryArea;
     private JButton newGameButton;
     private JCheckBox aiCheckBox;
+    private JCheckBox ponderCheckBox;
     private JComboBox<String> difficultyComboBox;
+    private JComboBox<String> evaluatorComboBox; // desabilitado enquanto a IA pensa
     private JButton supremeAIButton;
+    private JProgressBar thinkingBar;
+
+    // A busca da IA roda fora da thread da interface, uma de cada vez
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "ia-jogada");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> aiTask; // busca em andamento (null quando a IA não está pensando)
+    private int aiRequest; // muda a cada busca e a cada cancelamento; respostas antigas são descartadas
     
     // Cores do tabuleiro - Tema Futurista
     private static final Color LIGHT_SQUARE = new Color(30, 30, 50);        // Azul escuro futurista
@@ -127,6 +146,16 @@ public class ChessGUI extends JFrame {
         aiModeLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(aiModeLabel);
 
+        // Indicador de que a IA está pensando
+        thinkingBar = new JProgressBar();
+        thinkingBar.setIndeterminate(true);
+        thinkingBar.setString("IA pensando...");
+        thinkingBar.setStringPainted(true);
+        thinkingBar.setMaximumSize(new Dimension(200, 20));
+        thinkingBar.setAlignmentX(Component.CENTER_ALIGNMENT);
+        thinkingBar.setVisible(false);
+        panel.add(thinkingBar);
+
         panel.add(Box.createVerticalStrut(20));
         
         // Botões de controle
@@ -164,6 +193,17 @@ public class ChessGUI extends JFrame {
             toggleAI();
         });
         panel.add(aiCheckBox);
+
+        ponderCheckBox = new JCheckBox("Pensar no tempo do jogador");
+        ponderCheckBox.setOpaque(true);
+        ponderCheckBox.setContentAreaFilled(false);
+        ponderCheckBox.setFocusPainted(false);
+        ponderCheckBox.setBackground(new Color(25, 25, 45)); // Mesmo fundo do painel lateral
+        ponderCheckBox.setForeground(new Color(0, 255, 255)); // Texto ciano
+        ponderCheckBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+        ponderCheckBox.setToolTipText("Depois de jogar, a IA já busca a resposta ao lance que espera de você");
+        ponderCheckBox.addActionListener(e -> game.setPonderingEnabled(ponderCheckBox.isSelected()));
+        panel.add(ponderCheckBox);
         
         panel.add(Box.createVerticalStrut(10));
         
@@ -240,6 +280,48 @@ public class ChessGUI extends JFrame {
         });
         panel.add(advancedAIComboBox);
 
+        panel.add(Box.createVerticalStrut(10));
+
+        // Box para seleção da função de avaliação (vale para todas as IAs)
+        JLabel evaluatorLabel = new JLabel("Avaliação:");
+        evaluatorLabel.setForeground(new Color(255, 0, 255));
+        evaluatorLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        panel.add(evaluatorLabel);
+
+        evaluatorComboBox = new JComboBox<>(new String[]{"Padrão da IA", "Tabelas peça-casa (PST)", "Rede NNUE"});
+        evaluatorComboBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+        evaluatorComboBox.setOpaque(true);
+        evaluatorComboBox.setBackground(new Color(25, 25, 45));
+        evaluatorComboBox.setForeground(Color.WHITE);
+        evaluatorComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                setBackground(new Color(25, 25, 45));
+                setForeground(Color.WHITE);
+                return this;
+            }
+        });
+        evaluatorComboBox.setSelectedIndex(0);
+        evaluatorComboBox.addActionListener(e -> {
+            Evaluator evaluator;
+            switch (evaluatorComboBox.getSelectedIndex()) {
+                case 1:
+                    evaluator = new PstEvaluator();
+                    break;
+                case 2:
+                    evaluator = new NnueEvaluator();
+                    break;
+                default:
+                    evaluator = null;
+                    break;
+            }
+            // A troca apaga a tabela de transposição: nenhuma busca pode estar rodando
+            awaitCancelledAIMove();
+            game.setEvaluator(evaluator);
+        });
+        panel.add(evaluatorComboBox);
+
         panel.add(Box.createVerticalStrut(20));
         
         // Histórico de movimentos
@@ -266,6 +348,9 @@ public class ChessGUI extends JFrame {
      * Trata o clique em uma casa do tabuleiro
      */
     private void handleSquareClick(int row, int col) {
+        if (isAIThinking()) {
+            return; // o tabuleiro não muda enquanto a IA pensa
+        }
         Position clickedPosition = new Position(row, col);
         
         if (game.getSelectedPosition() == null) {
@@ -277,9 +362,11 @@ public class ChessGUI extends JFrame {
         } else {
             // Tenta fazer um movimento
             if (game.makeMove(clickedPosition)) {
+                // Mostra o lance do jogador antes da resposta da IA
                 updateBoard();
                 updateStatus();
                 updateMoveHistory();
+                startAIMoveIfNeeded();
             } else {
                 // Se o movimento falhou, tenta selecionar outra peça
                 if (game.selectPiece(clickedPosition)) {
@@ -290,6 +377,83 @@ public class ChessGUI extends JFrame {
         }
     }
     
+    /**
+     * Se for a vez da IA, calcula a jogada numa thread de fundo; o resultado é aplicado na
+     * thread da interface, desde que a busca não tenha sido cancelada nesse meio tempo
+     */
+    private void startAIMoveIfNeeded() {
+        if (isAIThinking() || !game.isAITurn()) {
+            return;
+        }
+        int request = ++aiRequest;
+        Board position = game.getBoard().copy();
+        setThinking(true);
+        aiTask = aiExecutor.submit(() -> {
+            Move move = null;
+            try {
+                move = game.computeAIMove(position);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // applyAIMove recorre a qualquer movimento legal
+            }
+            Move result = move;
+            SwingUtilities.invokeLater(() -> finishAIMove(request, result));
+        });
+    }
+
+    /**
+     * Aplica a jogada da IA calculada em segundo plano
+     */
+    private void finishAIMove(int request, Move move) {
+        if (request != aiRequest) {
+            return; // busca cancelada (novo jogo ou IA desligada)
+        }
+        aiTask = null;
+        setThinking(false);
+        game.applyAIMove(move);
+        updateBoard();
+        updateStatus();
+        updateMoveHistory();
+        startAIMoveIfNeeded();
+    }
+
+    /**
+     * Cancela a busca da IA em andamento: a busca para logo e a sua resposta é ignorada
+     */
+    private void cancelAIMove() {
+        if (aiTask == null) {
+            return;
+        }
+        aiRequest++;
+        game.stopAIThinking();
+        aiTask.cancel(false);
+        aiTask = null;
+        setThinking(false);
+    }
+
+    private boolean isAIThinking() {
+        return aiTask != null;
+    }
+
+    /**
+     * Espera a busca cancelada por {@link #cancelAIMove} sair do executor; ela já foi
+     * interrompida, então termina logo
+     */
+    private void awaitCancelledAIMove() {
+        try {
+            aiExecutor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void setThinking(boolean thinking) {
+        thinkingBar.setVisible(thinking);
+        evaluatorComboBox.setEnabled(!thinking);
+        setCursor(thinking ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     /**
      * Atualiza a exibição do tabuleiro
      */
@@ -410,6 +574,7 @@ public class ChessGUI extends JFrame {
      */
     private void newGame() {
         System.out.println("Novo jogo iniciado!");
+        cancelAIMove();
         game.resetGame();
         updateBoard();
         updateStatus();
@@ -429,7 +594,9 @@ public class ChessGUI extends JFrame {
                 "IA habilitada! Você jogará contra o computador.\n" +
                 "Dificuldade atual: " + difficultyComboBox.getSelectedItem());
             updateAIModeLabel();
+            startAIMoveIfNeeded(); // se já for a vez das pretas
         } else {
+            cancelAIMove();
             JOptionPane.showMessageDialog(this, 
                 "IA desabilitada! Você jogará contra outro jogador.");
             updateAIModeLabel();
@@ -468,6 +635,7 @@ public class ChessGUI extends JFrame {
             "Modo IA Suprema desativado. Voltando à IA tradicional.";
         JOptionPane.showMessageDialog(this, msg);
         updateAIModeLabel();
+        startAIMoveIfNeeded();
     }
 
     private void updateAIModeLabel() {
@@ -0,0 +1,412 @@
+package view;
+
+import model.ChessAI;
+import model.IANivel8;
+import model.IASuprema;
+import model.Perft;
+import model.engine.AlphaBetaSearch;
+import model.engine.BitBoard;
+import model.engine.MoveGenerator;
+import model.engine.PackedMove;
+import model.engine.SearchEngine;
+import model.engine.SearchLimits;
+import model.engine.SearchResult;
+import model.engine.SearchTimer;
+import model.engine.TranspositionTable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Interface UCI (Universal Chess Interface) das IAs pela entrada e saída padrão, para jogar em
+ * gerenciadores de torneio e medir a velocidade da busca fora da interface gráfica.
+ *
+ * Comandos aceitos: {@code uci}, {@code isready}, {@code ucinewgame}, {@code setoption}
+ * (Hash, Threads, Engine), {@code position startpos|fen ... [moves ...]}, {@code go} (depth,
+ * movetime, nodes, wtime/btime/winc/binc/movestogo, infinite, ponder), {@code stop},
+ * {@code ponderhit} e {@code quit}. A busca roda numa thread própria e manda uma linha
+ * {@code info} a cada iteração concluída.
+ * Ao fim da entrada, a busca em andamento termina pelos seus limites antes de sair, o que permite
+ * roteiros de comandos sem {@code quit}. Uso:
+ * <pre>
+ *   java -cp target/classes view.UciEngine [&lt; comandos.txt]
+ * </pre>
+ */
+public class UciEngine {
+    private static final String NAME = "Xadrez-JAVA";
+    private static final String[] ENGINES = {"Suprema 2", "Suprema", "Classica"};
+    // Folga para a comunicação com o gerenciador ao calcular o tempo da jogada
+    private static final long MOVE_OVERHEAD_MS = 30;
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final int MAX_HASH_MB = 1024;
+
+    private final PrintStream out;
+    private final IASuprema suprema = new IASuprema();
+    private final IANivel8 suprema2 = new IANivel8();
+    private final ChessAI classic = new ChessAI();
+    private String engine = ENGINES[0];
+    private BitBoard position = BitBoard.fromFen(Perft.POSICAO_INICIAL);
+
+    private Thread searchThread;
+    private volatile SearchTimer timer;
+    // Em "go infinite" e "go ponder" o bestmove só sai depois de stop ou ponderhit
+    private boolean waitForStop;
+
+    public UciEngine(PrintStream out) {
+        this.out = out;
+        classic.setSupremeMode(true);
+        for (SearchEngine searchEngine : new SearchEngine[] {suprema2, suprema, classic}) {
+            searchEngine.setSearchListener(this::info);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        UciEngine uci = new UciEngine(System.out);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!uci.execute(line)) {
+                return;
+            }
+        }
+        // Fim da entrada (roteiro de comandos): a busca com limites termina normalmente
+        uci.finishSearch();
+    }
+
+    /**
+     * Executa um comando. Retorna false em {@code quit}.
+     */
+    public boolean execute(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author Xadrez-JAVA");
+                send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB
+                        + " min 1 max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max "
+                        + Runtime.getRuntime().availableProcessors());
+                send("option name Engine type combo default " + ENGINES[0]
+                        + " var " + String.join(" var ", ENGINES));
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                awaitSearch();
+                // Partida nova: nada da anterior vale na tabela
+                clear(suprema.getTranspositionTable());
+                clear(suprema2.getTranspositionTable());
+                clear(classic.getTranspositionTable());
+                break;
+            case "setoption":
+                awaitSearch();
+                setOption(tokens);
+                break;
+            case "position":
+                awaitSearch();
+                position(tokens);
+                break;
+            case "go":
+                awaitSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stop();
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "quit":
+                stop();
+                awaitSearch();
+                return false;
+            default:
+                if (!tokens[0].isEmpty()) {
+                    send("info string comando desconhecido: " + tokens[0]);
+                }
+        }
+        return true;
+    }
+
+    // setoption name <nome com espaços> value <valor>
+    private void setOption(String[] tokens) {
+        String name = between(tokens, "name", "value");
+        String value = between(tokens, "value", null);
+        try {
+            switch (name.toLowerCase()) {
+                case "hash":
+                    int sizeMb = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+                    suprema.setHashSizeMb(sizeMb);
+                    suprema2.setHashSizeMb(sizeMb);
+                    classic.setHashSizeMb(sizeMb);
+                    break;
+                case "threads":
+                    int threads = Math.max(1, Integer.parseInt(value));
+                    suprema.setThreads(threads);
+                    suprema2.setThreads(threads);
+                    classic.setRootParallelism(threads); // a IA clássica só divide a raiz
+                    break;
+                case "engine":
+                    for (String option : ENGINES) {
+                        if (option.equalsIgnoreCase(value)) {
+                            engine = option;
+                            return;
+                        }
+                    }
+                    send("info string motor desconhecido: " + value);
+                    break;
+                default:
+                    send("info string opção desconhecida: " + name);
+            }
+        } catch (NumberFormatException e) {
+            send("info string valor inválido para " + name + ": " + value);
+        }
+    }
+
+    // position startpos|fen <fen> [moves <lances>]
+    private void position(String[] tokens) {
+        int movesIndex = indexOf(tokens, "moves");
+        BitBoard board;
+        try {
+            if (tokens.length > 1 && tokens[1].equals("fen")) {
+                int end = movesIndex < 0 ? tokens.length : movesIndex;
+                board = BitBoard.fromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, end)));
+            } else {
+                board = BitBoard.fromFen(Perft.POSICAO_INICIAL);
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+            return;
+        }
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        for (int i = movesIndex + 1; movesIndex >= 0 && i < tokens.length; i++) {
+            int move = findMove(board, tokens[i], legal);
+            if (move == PackedMove.NONE) {
+                send("info string lance ilegal: " + tokens[i]);
+                break;
+            }
+            board.makeMove(move);
+            // Recomeça o histórico de desfazer, que não é usado aqui, para partidas longas
+            BitBoard next = new BitBoard();
+            next.copyFrom(board);
+            board = next;
+        }
+        position = board;
+    }
+
+    private void go(String[] tokens) {
+        boolean white = position.isWhiteToMove();
+        SearchLimits limits = null;
+        long remaining = 0;
+        long increment = 0;
+        int movesToGo = DEFAULT_MOVES_TO_GO;
+        boolean infinite = false;
+        boolean ponder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            String key = tokens[i];
+            if (key.equals("infinite")) {
+                infinite = true;
+                continue;
+            }
+            if (key.equals("ponder")) {
+                ponder = true;
+                continue;
+            }
+            if (i + 1 >= tokens.length) {
+                break;
+            }
+            long value;
+            try {
+                value = Long.parseLong(tokens[i + 1]);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            i++;
+            if (limits == null) {
+                limits = SearchLimits.infinite();
+            }
+            switch (key) {
+                case "depth": limits = limits.withDepth((int) Math.max(1, Math.min(SearchLimits.MAX_DEPTH, value))); break;
+                case "movetime": limits = limits.withMoveTime(Math.max(1, value)); break;
+                case "nodes": limits = limits.withNodes(Math.max(1, value)); break;
+                case "wtime": if (white) remaining = value; break;
+                case "btime": if (!white) remaining = value; break;
+                case "winc": if (white) increment = value; break;
+                case "binc": if (!white) increment = value; break;
+                case "movestogo": movesToGo = (int) Math.max(1, value); break;
+                default: break;
+            }
+        }
+        if (remaining > 0) {
+            limits = limits.withMoveTime(moveTime(remaining, increment, movesToGo));
+        }
+        if (infinite) {
+            limits = SearchLimits.infinite();
+        } else if (limits == null) {
+            limits = currentLimits(); // "go" sem limites: os da IA escolhida
+        }
+
+        SearchTimer searchTimer = ponder ? SearchTimer.pondering(limits) : new SearchTimer(limits);
+        SearchEngine searchEngine = currentEngine();
+        BitBoard root = new BitBoard();
+        root.copyFrom(position);
+        synchronized (this) {
+            waitForStop = infinite || ponder;
+            timer = searchTimer;
+        }
+        searchThread = new Thread(() -> {
+            SearchResult result = searchEngine.search(root, searchTimer);
+            synchronized (this) {
+                while (waitForStop) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            send(bestMove(result));
+        }, "uci-busca");
+        searchThread.start();
+    }
+
+    // Uma fração do tempo restante mais a maior parte do incremento, sem estourar o relógio
+    private static long moveTime(long remaining, long increment, int movesToGo) {
+        long budget = remaining / movesToGo + increment * 3 / 4;
+        return Math.max(1, Math.min(budget, remaining - MOVE_OVERHEAD_MS));
+    }
+
+    private SearchLimits currentLimits() {
+        switch (engine) {
+            case "Suprema": return suprema.getSearchLimits();
+            case "Classica": return classic.getSearchLimits();
+            default: return suprema2.getSearchLimits();
+        }
+    }
+
+    private SearchEngine currentEngine() {
+        switch (engine) {
+            case "Suprema": return suprema;
+            case "Classica": return classic;
+            default: return suprema2;
+        }
+    }
+
+    private synchronized void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        waitForStop = false;
+        notifyAll();
+    }
+
+    private synchronized void ponderHit() {
+        if (timer != null) {
+            timer.ponderHit();
+        }
+        waitForStop = false;
+        notifyAll();
+    }
+
+    private void finishSearch() {
+        synchronized (this) {
+            if (waitForStop) {
+                stop(); // infinite ou ponder não terminariam sozinhas
+            }
+        }
+        awaitSearch();
+    }
+
+    // Espera a busca em andamento mandar o bestmove (ela só termina sozinha se tiver limites)
+    private void awaitSearch() {
+        Thread thread = searchThread;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    // Linha info de uma iteração concluída
+    private void info(int depth, int score, long nodes, long elapsedMillis, int[] pv) {
+        StringBuilder line = new StringBuilder("info depth ").append(depth);
+        int mateDistance = AlphaBetaSearch.MATE - Math.abs(score);
+        if (mateDistance <= SearchLimits.MAX_DEPTH + 1) {
+            int moves = (mateDistance + 1) / 2;
+            line.append(" score mate ").append(score > 0 ? moves : -moves);
+        } else {
+            line.append(" score cp ").append(score);
+        }
+        line.append(" nodes ").append(nodes)
+            .append(" nps ").append(nodes * 1000 / Math.max(1, elapsedMillis))
+            .append(" time ").append(elapsedMillis)
+            .append(" pv");
+        for (int move : pv) {
+            line.append(' ').append(PackedMove.toUci(move));
+        }
+        send(line.toString());
+    }
+
+    private static void clear(TranspositionTable table) {
+        if (table != null) {
+            table.clear();
+        }
+    }
+
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+
+    // bestmove, com o lance esperado do adversário quando a variante principal o tem
+    private static String bestMove(SearchResult result) {
+        if (!result.hasMove()) {
+            return "bestmove 0000"; // sem movimentos legais
+        }
+        int[] pv = result.getPrincipalVariation();
+        String line = "bestmove " + PackedMove.toUci(result.getBestMove());
+        return pv.length > 1 ? line + " ponder " + PackedMove.toUci(pv[1]) : line;
+    }
+
+    private static int findMove(BitBoard board, String uci, int[] legal) {
+        int total = MoveGenerator.generateLegal(board, legal);
+        for (int i = 0; i < total; i++) {
+            if (PackedMove.toUci(legal[i]).equals(uci)) {
+                return legal[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    private static int indexOf(String[] tokens, String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Palavras entre dois marcadores (ou até o fim), unidas por espaço
+    private static String between(String[] tokens, String start, String end) {
+        int from = indexOf(tokens, start);
+        if (from < 0) {
+            return "";
+        }
+        int to = end == null ? -1 : indexOf(tokens, end);
+        if (to < from) {
+            to = tokens.length;
+        }
+        return String.join(" ", Arrays.copyOfRange(tokens, from + 1, to));
+    }
+}
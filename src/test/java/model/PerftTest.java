@@ -0,0 +1,33 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import model.engine.BitBoard;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Contagens de referência do perft nos três geradores: o legal e o pseudo-legal do
+ * {@link BitBoard} e o caminho {@link Board} usado pelo {@link Game}. O {@link Perft#main}
+ * continua servindo para medir nós/s e para o modo divide.
+ */
+class PerftTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+        "posição inicial, " + Perft.POSICAO_INICIAL + ", 4, 197281",
+        "kiwipete, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, 3, 97862",
+        "final de torres (en passant), 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1, 5, 674624",
+        "en passant ilegal (cravada), 3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1, 6, 1134888",
+        "en passant dá xeque, 8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1, 6, 1440467",
+        "promoções e roques, r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1, 3, 9467",
+        "promoção com captura, rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8, 3, 62379",
+        "promoção dá xeque, 4k3/1P6/8/8/8/8/K7/8 w - - 0 1, 6, 217342",
+        "subpromoção dá xeque, 8/P1k5/K7/8/8/8/8/8 w - - 0 1, 6, 92683",
+    })
+    void contagensDeReferencia(String nome, String fen, int profundidade, long esperado) {
+        assertEquals(esperado, Perft.perftLegal(BitBoard.fromFen(fen), profundidade), "gerador legal");
+        assertEquals(esperado, Perft.perft(BitBoard.fromFen(fen), profundidade), "gerador pseudo-legal");
+        assertEquals(esperado, Perft.perft(Perft.tabuleiroDaFen(fen), profundidade), "caminho Board");
+    }
+}